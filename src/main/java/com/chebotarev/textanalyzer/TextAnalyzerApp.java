@@ -1,39 +1,149 @@
 package com.chebotarev.textanalyzer;
 
+import com.chebotarev.textanalyzer.model.AnalysisOptions;
+import com.chebotarev.textanalyzer.model.AnalysisResult;
+import com.chebotarev.textanalyzer.model.CorpusResult;
+import com.chebotarev.textanalyzer.model.SpellingError;
 import com.chebotarev.textanalyzer.model.WordFrequency;
+import com.chebotarev.textanalyzer.service.CorpusAnalyzer;
 import com.chebotarev.textanalyzer.service.TextAnalysisService;
+import com.chebotarev.textanalyzer.util.BkTreeEngine;
+import com.chebotarev.textanalyzer.util.BloomFilterDictionary;
+import com.chebotarev.textanalyzer.util.CandidateSuggestionEngine;
 import com.chebotarev.textanalyzer.util.CustomHashMap;
+import com.chebotarev.textanalyzer.util.DawgDictionary;
+import com.chebotarev.textanalyzer.util.DictionaryLookup;
+import com.chebotarev.textanalyzer.util.DictionarySnapshot;
+import com.chebotarev.textanalyzer.util.OffHeapDictionary;
+import com.chebotarev.textanalyzer.util.SpellChecker;
+import com.chebotarev.textanalyzer.util.SuggestionEngine;
+import com.chebotarev.textanalyzer.util.SymSpellEngine;
+import com.chebotarev.textanalyzer.util.WordIndex;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
 import java.util.stream.Collectors;
 
 public class TextAnalyzerApp {
     private static String currentText = "";
-    private static CustomHashMap<String, Boolean> dictionary = new CustomHashMap<>();
+    private static Path currentFile; // если задан, текст читается из файла через отображение в память
+    private static WordIndex currentIndex; // индекс для поиска, строится при первом поиске по тексту
+    private static DictionaryLookup dictionary = DictionaryLookup.of(new CustomHashMap<>());
     private static TextAnalysisService service;
+    private static String suggestionEngine = "edits"; // --suggestions=<edits|symspell|bktree|dawg>
+    private static double bloomRate; // --bloom[=доля]: фильтр Блума перед словарём, 0 - без фильтра
     private static final Scanner scanner = new Scanner(System.in);
 
     public static void main(String[] args) {
         System.out.println("=== Text Analyzer v2.0 ===");
+        args = parseOptions(args);
         service = new TextAnalysisService(dictionary);
 
-        if (args.length > 0) {
+        if (args.length > 1 && args[0].equals("--batch")) {
+            processBatch(args);
+        } else if (args.length > 1 && args[0].equals("--compile-dictionary")) {
+            compileDictionary(args);
+        } else if (args.length > 1 && args[0].equals("--compile-dawg")) {
+            compileDawg(args);
+        } else if (args.length > 0) {
             processCommandLineArgs(args);
         } else {
             showMainMenu();
         }
     }
 
+    // Разбирает параметры --suggestions=<edits|symspell|bktree|dawg> и --bloom[=доля ложных срабатываний],
+    // возвращает остальные аргументы
+    private static String[] parseOptions(String[] args) {
+        List<String> rest = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--suggestions=")) {
+                String engine = arg.substring("--suggestions=".length()).toLowerCase();
+                if (engine.equals("edits") || engine.equals("symspell") || engine.equals("bktree") || engine.equals("dawg")) {
+                    suggestionEngine = engine;
+                } else {
+                    System.err.println("Unknown suggestion engine: " + engine + " (expected edits, symspell, bktree or dawg)");
+                }
+            } else if (arg.equals("--bloom")) {
+                bloomRate = 0.01;
+            } else if (arg.startsWith("--bloom=")) {
+                try {
+                    bloomRate = Double.parseDouble(arg.substring("--bloom=".length()));
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid false positive rate: " + arg);
+                }
+                if (!(bloomRate >= 0 && bloomRate < 1)) {
+                    System.err.println("False positive rate must be in [0, 1): " + arg);
+                    bloomRate = 0;
+                }
+            } else {
+                rest.add(arg);
+            }
+        }
+        return rest.toArray(new String[0]);
+    }
+
+    // Сервис для словаря с выбранным алгоритмом подбора исправлений
+    private static TextAnalysisService createService(DictionaryLookup lookup) {
+        long start = System.nanoTime();
+        DictionaryLookup checked = lookup;
+        if (bloomRate > 0) {
+            BloomFilterDictionary filter = BloomFilterDictionary.withFalsePositiveRate(lookup, bloomRate);
+            System.out.printf("Bloom filter built: %d KB, %d hash functions in %d ms%n",
+                    filter.sizeInBytes() / 1024, filter.getHashFunctions(), (System.nanoTime() - start) / 1_000_000);
+            checked = filter;
+            start = System.nanoTime();
+        }
+        SuggestionEngine engine;
+        switch (suggestionEngine) {
+            case "symspell":
+                SymSpellEngine symSpell = new SymSpellEngine(lookup);
+                System.out.printf("Suggestion index built: %d deletes in %d ms%n",
+                        symSpell.indexSize(), (System.nanoTime() - start) / 1_000_000);
+                engine = symSpell;
+                break;
+            case "bktree":
+                BkTreeEngine bkTree = new BkTreeEngine(lookup);
+                System.out.printf("Suggestion tree built: %d words in %d ms%n",
+                        bkTree.size(), (System.nanoTime() - start) / 1_000_000);
+                engine = bkTree;
+                break;
+            case "dawg":
+                // Обход автомата; словарь в формате .dawg используется как есть
+                DawgDictionary dawg;
+                if (lookup instanceof DawgDictionary) {
+                    dawg = (DawgDictionary) lookup;
+                } else {
+                    DawgDictionary.Builder builder = DawgDictionary.builder();
+                    lookup.forEachWord(builder::add);
+                    dawg = builder.build();
+                }
+                System.out.printf("Suggestion automaton ready: %d arcs (%d KB) in %d ms%n",
+                        dawg.arcCount(), dawg.sizeInBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+                engine = dawg.suggestionEngine(2, 10);
+                break;
+            default:
+                engine = new CandidateSuggestionEngine(checked);
+                break;
+        }
+        return new TextAnalysisService(new SpellChecker(checked, engine));
+    }
+
     private static void processCommandLineArgs(String[] args) {
         try {
             // Загрузка текста
             Path textPath = Paths.get(args[0]);
-            currentText = Files.readString(textPath);
+            setCurrentFile(textPath);
             System.out.println("Loaded text from: " + textPath);
 
             // Загрузка словаря
@@ -51,6 +161,53 @@ public class TextAnalyzerApp {
         }
     }
 
+    // Пакетный режим: --batch <каталог> [словарь]
+    private static void processBatch(String[] args) {
+        try {
+            // Словарь корпуса хранится вне кучи: большие лексиконы не нагружают GC
+            TextAnalysisService batchService = service;
+            boolean spelling = false;
+            if (args.length > 2) {
+                Path dictPath = Paths.get(args[2]);
+                DictionaryLookup lexicon = openDictionary(dictPath);
+                batchService = createService(lexicon);
+                spelling = lexicon.size() > 0;
+                System.out.println("Loaded dictionary from: " + dictPath + " (" + lexicon.size() + " words)");
+            }
+            Path directory = Paths.get(args[1]);
+            AnalysisOptions options = AnalysisOptions.defaults()
+                    .withSpelling(spelling)
+                    .withTopK(20);
+
+            long start = System.nanoTime();
+            CorpusResult corpus = new CorpusAnalyzer(batchService, options).analyze(directory);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.println("\n=== CORPUS ANALYSIS: " + directory + " ===");
+            for (CorpusResult.FileResult file : corpus.getFiles()) {
+                System.out.printf("%s: %d words, %d unique%s%n",
+                        directory.relativize(file.getPath()), file.getTotalWords(), file.getUniqueWords(),
+                        file.isSpellingChecked() ? ", " + file.getMisspelledWords() + " misspelled" : "");
+            }
+            corpus.getFailures().forEach((path, message) ->
+                    System.err.println("Error reading " + path + ": " + message));
+
+            System.out.println("\nFiles analyzed: " + corpus.getFiles().size());
+            System.out.println("Total words: " + corpus.getTotalWords());
+            System.out.println("Unique words: " + corpus.getUniqueWords());
+            System.out.println("Time: " + elapsedMs + " ms");
+            if (spelling && batchService.getSpellChecker().getSuggestionCache() != null) {
+                System.out.println("Suggestion cache: " + batchService.getSpellChecker().getSuggestionCache());
+            }
+            System.out.println("\nTop 20 words in corpus:");
+            for (WordFrequency wf : corpus.getTopWords()) {
+                System.out.printf("%-15s: %d%n", wf.getWord(), wf.getFrequency());
+            }
+        } catch (IOException e) {
+            System.err.println("Error during batch analysis: " + e.getMessage());
+        }
+    }
+
     private static void showMainMenu() {
         while (true) {
             System.out.println("\n=== MAIN MENU ===");
@@ -85,14 +242,50 @@ public class TextAnalyzerApp {
         System.out.print("Enter text file path: ");
         String path = scanner.nextLine().trim();
         try {
-            currentText = Files.readString(Paths.get(path));
+            Path textPath = Paths.get(path);
+            setCurrentFile(textPath);
             System.out.println("Text loaded successfully!");
-            System.out.println("Preview: " + currentText.substring(0, Math.min(100, currentText.length())) + "...");
+            System.out.println("Preview: " + readPreview(textPath, 100) + "...");
         } catch (IOException e) {
             System.err.println("Error loading file: " + e.getMessage());
         }
     }
 
+    // Файл не загружается в String - анализ читает его через FileChannel.map
+    private static void setCurrentFile(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(path.toString());
+        }
+        currentFile = path;
+        currentText = "";
+        currentIndex = null;
+    }
+
+    private static String readPreview(Path path, int limit) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[limit];
+            int length = 0;
+            int read;
+            while (length < limit && (read = reader.read(buffer, length, limit - length)) != -1) {
+                length += read;
+            }
+            return new String(buffer, 0, length);
+        }
+    }
+
+    private static boolean hasText() {
+        return currentFile != null || !currentText.isEmpty();
+    }
+
+    private static AnalysisResult analyzeCurrent(AnalysisOptions options) throws IOException {
+        if (currentFile != null) {
+            return service.analyzeMapped(currentFile, options);
+        }
+        // Большой текст в памяти считается на всех ядрах
+        return service.analyze(currentText,
+                options.withParallelism(Runtime.getRuntime().availableProcessors()));
+    }
+
     private static void loadDictionaryFromFile() {
         System.out.print("Enter dictionary file path: ");
         String path = scanner.nextLine().trim();
@@ -100,21 +293,68 @@ public class TextAnalyzerApp {
             Path dictPath = Paths.get(path);
             loadDictionary(dictPath);
             System.out.println("Dictionary loaded successfully!");
-            System.out.println("Words loaded: " + dictionary.entries().size());
+            System.out.println("Words loaded: " + dictionary.size());
         } catch (IOException e) {
             System.err.println("Error loading dictionary: " + e.getMessage());
         }
     }
 
     private static void loadDictionary(Path path) throws IOException {
-        dictionary = new CustomHashMap<>();
-        List<String> words = Files.readAllLines(path);
-        for (String word : words) {
-            if (!word.trim().isEmpty()) {
-                dictionary.put(word.trim().toLowerCase(), true);
-            }
+        dictionary = openDictionary(path);
+        service = createService(dictionary);
+    }
+
+    // Словарь вне кучи: готовый автомат (.dawg) и снимок (.snapshot) отображаются в память,
+    // для текстового словаря используется снимок рядом с ним, если тот актуален
+    private static DictionaryLookup openDictionary(Path path) throws IOException {
+        long start = System.nanoTime();
+        String name = path.getFileName().toString();
+        DictionaryLookup lexicon;
+        String source;
+        if (name.endsWith(DawgDictionary.EXTENSION)) {
+            lexicon = DawgDictionary.map(path);
+            source = "automaton";
+        } else if (name.endsWith(DictionarySnapshot.EXTENSION)) {
+            lexicon = DictionarySnapshot.map(path, null);
+            source = "snapshot";
+        } else {
+            DictionarySnapshot.Loaded loaded = DictionarySnapshot.load(path);
+            lexicon = loaded.getDictionary();
+            source = loaded.isFromSnapshot() ? "snapshot" : "text, " + loaded.getFallbackReason();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Dictionary ready: %d words in %d ms, %,d words/s (%s)%n",
+                lexicon.size(), elapsed / 1_000_000, lexicon.size() * 1_000_000_000L / Math.max(1, elapsed), source);
+        return lexicon;
+    }
+
+    // Режим --compile-dictionary <словарь.txt> [снимок]: двоичный снимок для быстрой загрузки
+    private static void compileDictionary(String[] args) {
+        Path text = Paths.get(args[1]);
+        Path snapshot = args.length > 2 ? Paths.get(args[2]) : DictionarySnapshot.defaultPath(text);
+        try {
+            long start = System.nanoTime();
+            OffHeapDictionary compiled = DictionarySnapshot.compile(text, snapshot);
+            System.out.printf("Compiled %d words into %s (%d KB) in %d ms%n", compiled.size(), snapshot,
+                    Files.size(snapshot) / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.err.println("Error compiling dictionary: " + e.getMessage());
+        }
+    }
+
+    // Режим --compile-dawg <словарь.txt> [автомат.dawg]: словарь-автомат, который принимает пакетный режим
+    private static void compileDawg(String[] args) {
+        Path text = Paths.get(args[1]);
+        Path output = args.length > 2 ? Paths.get(args[2]) : DawgDictionary.defaultPath(text);
+        try {
+            long start = System.nanoTime();
+            DawgDictionary dawg = DawgDictionary.load(text);
+            dawg.write(output);
+            System.out.printf("Compiled %d words into %s (%d arcs, %d KB) in %d ms%n", dawg.size(), output,
+                    dawg.arcCount(), Files.size(output) / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.err.println("Error compiling dictionary: " + e.getMessage());
         }
-        service = new TextAnalysisService(dictionary);
     }
 
     private static void enterTextManually() {
@@ -126,66 +366,93 @@ public class TextAnalyzerApp {
             sb.append(line).append("\n");
         }
         currentText = sb.toString();
+        currentFile = null;
+        currentIndex = null;
         System.out.println("Text saved successfully!");
     }
 
     private static void performFullAnalysis() {
-        if (currentText.isEmpty()) {
+        if (!hasText()) {
             System.out.println("No text loaded! Please load text first.");
             return;
         }
 
         System.out.println("\n=== TEXT ANALYSIS ===");
 
-        // 1. Основная статистика
-        int totalWords = service.countTotalWords(currentText);
-        CustomHashMap<String, Integer> frequencyMap = service.countWords(currentText);
-        List<WordFrequency> sortedFrequencies = service.sortByFrequency(frequencyMap);
+        // 1. Основная статистика (один проход по тексту)
+        AnalysisResult result;
+        try {
+            result = analyzeCurrent(AnalysisOptions.defaults()
+                    .withSpelling(dictionary.size() > 0)
+                    .withTopK(10));
+        } catch (IOException e) {
+            System.err.println("Error reading text: " + e.getMessage());
+            return;
+        }
+        List<WordFrequency> topWords = result.getTopWords();
 
-        System.out.println("Total words: " + totalWords);
-        System.out.println("Unique words: " + sortedFrequencies.size());
+        System.out.println("Total words: " + result.getTotalWords());
+        System.out.println("Unique words: " + result.getUniqueWords());
 
         // 2. Топ-10 слов
         System.out.println("\nTop 10 most frequent words:");
-        int limit = Math.min(10, sortedFrequencies.size());
-        for (int i = 0; i < limit; i++) {
-            WordFrequency wf = sortedFrequencies.get(i);
+        for (int i = 0; i < topWords.size(); i++) {
+            WordFrequency wf = topWords.get(i);
             System.out.printf("%2d. %-15s : %5d occurrences%n",
                     i + 1, wf.getWord(), wf.getFrequency());
         }
 
         // 3. Проверка орфографии
-        checkSpelling();
+        if (result.isSpellingChecked()) {
+            printSpellingErrors(result.getSortedSpellingErrors());
+        } else {
+            System.out.println("\nDictionary not loaded! Spelling check skipped.");
+        }
 
         // 4. Интерактивный поиск
         searchForWords();
     }
 
     private static void checkSpelling() {
-        if (dictionary.entries().isEmpty()) {
+        if (dictionary.size() == 0) {
             System.out.println("\nDictionary not loaded! Spelling check skipped.");
             return;
         }
 
-        CustomHashMap<String, List<String>> spellingErrors = service.checkSpelling(currentText);
-        List<CustomHashMap.Entry<String, List<String>>> errorEntries = spellingErrors.entries();
+        try {
+            printSpellingErrors(analyzeCurrent(AnalysisOptions.defaults()).getSortedSpellingErrors());
+        } catch (IOException e) {
+            System.err.println("Error reading text: " + e.getMessage());
+        }
+    }
 
-        if (errorEntries.isEmpty()) {
+    // Ошибки выводятся по убыванию числа вхождений
+    private static void printSpellingErrors(List<SpellingError> spellingErrors) {
+        if (spellingErrors.isEmpty()) {
             System.out.println("\nNo spelling errors found!");
         } else {
             System.out.println("\nSpelling errors and suggestions:");
-            for (CustomHashMap.Entry<String, List<String>> entry : errorEntries) {
-                String suggestions = entry.value.isEmpty() ?
+            for (SpellingError error : spellingErrors) {
+                String suggestions = error.getSuggestions().isEmpty() ?
                         "No suggestions available" :
-                        String.join(", ", entry.value);
-                System.out.println("  - " + entry.key + ": " + suggestions);
+                        String.join(", ", error.getSuggestions());
+                System.out.println("  - " + error.getWord() + " (x" + error.getOccurrences() + "): " + suggestions);
             }
-            System.out.println("Total errors: " + errorEntries.size());
+            System.out.println("Total errors: " + spellingErrors.size());
         }
     }
 
     private static void searchForWords() {
         System.out.println("\n=== WORD SEARCH ===");
+        // Индекс строится один раз на текст, каждый запрос - поиск в хеш-таблице
+        WordIndex index;
+        try {
+            index = currentIndex();
+        } catch (IOException e) {
+            System.err.println("Error reading text: " + e.getMessage());
+            return;
+        }
+
         System.out.println("Enter words to search (type 'exit' to quit):");
 
         while (true) {
@@ -196,24 +463,39 @@ public class TextAnalyzerApp {
                 break;
             }
 
-            List<Integer> positions = service.findWordPositions(currentText, word);
-            if (positions.isEmpty()) {
+            int[] positions = index.positions(word);
+            if (positions.length == 0) {
                 System.out.println("Word '" + word + "' not found");
             } else {
-                System.out.println("Word '" + word + "' found at positions: " + positions);
-                System.out.println("Total occurrences: " + positions.size());
+                System.out.println("Word '" + word + "' found at positions: " + Arrays.toString(positions));
+                System.out.println("Total occurrences: " + positions.length);
             }
         }
     }
 
+    private static WordIndex currentIndex() throws IOException {
+        if (currentIndex == null) {
+            currentIndex = currentFile != null
+                    ? service.buildIndexMapped(currentFile)
+                    : service.buildIndex(currentText);
+        }
+        return currentIndex;
+    }
+
     private static void showWordFrequency() {
-        if (currentText.isEmpty()) {
+        if (!hasText()) {
             System.out.println("No text loaded!");
             return;
         }
 
-        CustomHashMap<String, Integer> frequencyMap = service.countWords(currentText);
-        List<WordFrequency> sortedFrequencies = service.sortByFrequency(frequencyMap);
+        List<WordFrequency> sortedFrequencies;
+        try {
+            sortedFrequencies = analyzeCurrent(AnalysisOptions.defaults().withSpelling(false))
+                    .getSortedFrequencies();
+        } catch (IOException e) {
+            System.err.println("Error reading text: " + e.getMessage());
+            return;
+        }
 
         System.out.println("\nWord Frequency Statistics:");
         System.out.println("+-----------------+------------+");
@@ -229,7 +511,7 @@ public class TextAnalyzerApp {
     }
 
     private static void saveResults() {
-        if (currentText.isEmpty()) {
+        if (!hasText()) {
             System.out.println("No analysis results to save!");
             return;
         }
@@ -240,34 +522,34 @@ public class TextAnalyzerApp {
         try {
             StringBuilder report = new StringBuilder("=== TEXT ANALYSIS REPORT ===\n\n");
 
-            // 1. Basic stats
-            int totalWords = service.countTotalWords(currentText);
-            report.append("Total words: ").append(totalWords).append("\n");
+            // 1. Basic stats (single pass over the text)
+            AnalysisResult result = analyzeCurrent(AnalysisOptions.defaults()
+                    .withSpelling(dictionary.size() > 0)
+                    .withTopK(20));
+            report.append("Total words: ").append(result.getTotalWords()).append("\n");
 
             // 2. Frequency stats
-            CustomHashMap<String, Integer> frequencyMap = service.countWords(currentText);
-            List<WordFrequency> sortedFrequencies = service.sortByFrequency(frequencyMap);
-            report.append("Unique words: ").append(sortedFrequencies.size()).append("\n\n");
+            List<WordFrequency> topWords = result.getTopWords();
+            report.append("Unique words: ").append(result.getUniqueWords()).append("\n\n");
 
             // 3. Top 20 words
             report.append("Top 20 most frequent words:\n");
-            int limit = Math.min(20, sortedFrequencies.size());
-            for (int i = 0; i < limit; i++) {
-                WordFrequency wf = sortedFrequencies.get(i);
+            for (int i = 0; i < topWords.size(); i++) {
+                WordFrequency wf = topWords.get(i);
                 report.append(String.format("%2d. %-15s : %5d%n",
                         i + 1, wf.getWord(), wf.getFrequency()));
             }
 
             // 4. Spelling errors
-            if (!dictionary.entries().isEmpty()) {
-                CustomHashMap<String, List<String>> spellingErrors = service.checkSpelling(currentText);
-                List<CustomHashMap.Entry<String, List<String>>> errorEntries = spellingErrors.entries();
+            if (result.isSpellingChecked()) {
+                List<SpellingError> spellingErrors = result.getSortedSpellingErrors();
 
-                if (!errorEntries.isEmpty()) {
+                if (!spellingErrors.isEmpty()) {
                     report.append("\nSpelling errors:\n");
-                    for (CustomHashMap.Entry<String, List<String>> entry : errorEntries) {
-                        report.append("  - ").append(entry.key).append(": ")
-                                .append(String.join(", ", entry.value)).append("\n");
+                    for (SpellingError error : spellingErrors) {
+                        report.append("  - ").append(error.getWord())
+                                .append(" (x").append(error.getOccurrences()).append("): ")
+                                .append(String.join(", ", error.getSuggestions())).append("\n");
                     }
                 }
             }
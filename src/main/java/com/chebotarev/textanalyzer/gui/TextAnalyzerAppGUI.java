@@ -1,8 +1,15 @@
 package com.chebotarev.textanalyzer.gui;
 
+import com.chebotarev.textanalyzer.model.AnalysisOptions;
+import com.chebotarev.textanalyzer.model.AnalysisResult;
+import com.chebotarev.textanalyzer.model.SpellingError;
 import com.chebotarev.textanalyzer.model.WordFrequency;
+import com.chebotarev.textanalyzer.service.IncrementalAnalyzer;
 import com.chebotarev.textanalyzer.service.TextAnalysisService;
 import com.chebotarev.textanalyzer.util.CustomHashMap;
+import com.chebotarev.textanalyzer.util.DictionaryLookup;
+import com.chebotarev.textanalyzer.util.DictionarySnapshot;
+import com.chebotarev.textanalyzer.util.WordTokenizer;
 import javafx.application.Application;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -21,6 +28,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.regex.Matcher;
@@ -31,6 +39,7 @@ public class TextAnalyzerAppGUI extends Application {
     // Основные компоненты интерфейса
     private TextArea textInput;
     private TextArea resultArea;
+    private TextField searchField;
     private Label statusLabel;
     private Label dictStatusLabel;
     private TableView<WordFrequency> statsTable;
@@ -39,7 +48,8 @@ public class TextAnalyzerAppGUI extends Application {
 
     // Сервисы и данные
     private TextAnalysisService service;
-    private CustomHashMap<String, Boolean> dictionary;
+    private IncrementalAnalyzer incrementalAnalyzer; // повторный анализ пересчитывает только правки
+    private DictionaryLookup dictionary;
     private CustomHashMap<String, List<String>> currentErrors;
 
     public static void main(String[] args) {
@@ -75,8 +85,9 @@ public class TextAnalyzerAppGUI extends Application {
     }
 
     private void initializeServices() {
-        dictionary = new CustomHashMap<>();
+        dictionary = DictionaryLookup.of(new CustomHashMap<>());
         service = new TextAnalysisService(dictionary);
+        incrementalAnalyzer = service.newIncrementalAnalyzer();
     }
 
     // ======================= КОМПОНЕНТЫ ИНТЕРФЕЙСА =======================
@@ -92,7 +103,13 @@ public class TextAnalyzerAppGUI extends Application {
         Button analyzeBtn = createButton("Analyze Text", this::analyzeText);
         analyzeBtn.setStyle("-fx-font-weight: bold;");
 
-        header.getChildren().addAll(loadTextBtn, loadDictBtn, clearBtn, analyzeBtn);
+        // Поиск слова по индексу
+        searchField = new TextField();
+        searchField.setPromptText("Search word...");
+        searchField.setOnAction(e -> searchWord());
+        Button findBtn = createButton("Find", this::searchWord);
+
+        header.getChildren().addAll(loadTextBtn, loadDictBtn, clearBtn, analyzeBtn, searchField, findBtn);
         return header;
     }
 
@@ -156,9 +173,14 @@ public class TextAnalyzerAppGUI extends Application {
         errorsTable = new TableView<>();
         TableColumn<SpellingError, String> errorWordCol = new TableColumn<>("Word");
         errorWordCol.setCellValueFactory(new PropertyValueFactory<>("word"));
+        TableColumn<SpellingError, Integer> occurrencesCol = new TableColumn<>("Occurrences");
+        occurrencesCol.setCellValueFactory(new PropertyValueFactory<>("occurrences"));
+        occurrencesCol.setSortType(TableColumn.SortType.DESCENDING);
         TableColumn<SpellingError, String> suggestionsCol = new TableColumn<>("Suggestions");
         suggestionsCol.setCellValueFactory(new PropertyValueFactory<>("suggestions"));
-        errorsTable.getColumns().addAll(errorWordCol, suggestionsCol);
+        errorsTable.getColumns().addAll(errorWordCol, occurrencesCol, suggestionsCol);
+        // По умолчанию самые частые ошибки сверху
+        errorsTable.getSortOrder().add(occurrencesCol);
 
         // Добавляем контекстное меню для замены слов
         errorsTable.setRowFactory(tv -> {
@@ -225,20 +247,15 @@ public class TextAnalyzerAppGUI extends Application {
         File file = showFileChooser("Open Dictionary", "*.txt");
         if (file != null) {
             try {
-                List<String> words = Files.readAllLines(file.toPath());
-
-                // Используем метод clear() вместо создания нового экземпляра
-                dictionary.clear();
-
-                for (String word : words) {
-                    if (!word.trim().isEmpty()) {
-                        dictionary.put(word.trim().toLowerCase(), true);
-                    }
-                }
+                // Актуальный снимок рядом со словарём отображается в память, иначе читается текст
+                DictionarySnapshot.Loaded loaded = DictionarySnapshot.load(file.toPath());
+                dictionary = loaded.getDictionary();
 
                 service = new TextAnalysisService(dictionary);
-                dictStatusLabel.setText("Dictionary: " + words.size() + " words");
-                statusLabel.setText("Dictionary loaded: " + file.getName());
+                incrementalAnalyzer = service.newIncrementalAnalyzer();
+                dictStatusLabel.setText("Dictionary: " + dictionary.size() + " words");
+                statusLabel.setText("Dictionary loaded: " + file.getName()
+                        + (loaded.isFromSnapshot() ? " (snapshot)" : ""));
                 updateErrorHighlight(textInput.getText());
             } catch (IOException e) {
                 showError("Dictionary Error", "Could not load dictionary: " + e.getMessage());
@@ -247,8 +264,9 @@ public class TextAnalyzerAppGUI extends Application {
     }
 
     private void clearAll() {
-        // Используем метод clear() для словаря
-        dictionary.clear();
+        dictionary = DictionaryLookup.of(new CustomHashMap<>());
+        service = new TextAnalysisService(dictionary);
+        incrementalAnalyzer = service.newIncrementalAnalyzer();
 
         // Очищаем поля интерфейса
         textInput.clear();
@@ -270,31 +288,29 @@ public class TextAnalyzerAppGUI extends Application {
         }
 
         try {
-            // 1. Основной анализ текста
-            int totalWords = service.countTotalWords(text);
-            CustomHashMap<String, Integer> freqMap = service.countWords(text);
-            List<WordFrequency> sorted = service.sortByFrequency(freqMap);
+            // 1. Основной анализ текста (пересчитываются только изменённые слова)
+            AnalysisResult analysis = incrementalAnalyzer.update(text, analysisOptions());
+            List<WordFrequency> sorted = analysis.getTopWords();
 
             // 2. Форматирование результатов
             StringBuilder result = new StringBuilder();
             result.append("=== TEXT ANALYSIS RESULTS ===\n\n");
-            result.append("Total words: ").append(totalWords).append("\n");
-            result.append("Unique words: ").append(sorted.size()).append("\n\n");
+            result.append("Total words: ").append(analysis.getTotalWords()).append("\n");
+            result.append("Unique words: ").append(analysis.getUniqueWords()).append("\n\n");
 
             result.append("Top 10 frequent words:\n");
-            int limit = Math.min(10, sorted.size());
-            for (int i = 0; i < limit; i++) {
+            for (int i = 0; i < sorted.size(); i++) {
                 WordFrequency wf = sorted.get(i);
                 result.append(String.format("%2d. %-15s : %d\n",
                         i+1, wf.getWord(), wf.getFrequency()));
             }
 
-            // 3. Проверка орфографии (используем isEmpty())
-            if (!dictionary.isEmpty()) {
-                currentErrors = service.checkSpelling(text);
-                if (!currentErrors.entries().isEmpty()) {
-                    result.append("\nSpelling errors found: ").append(currentErrors.entries().size());
-                    updateErrorsTable(currentErrors);
+            // 3. Проверка орфографии (выполнена в том же проходе)
+            if (analysis.isSpellingChecked()) {
+                currentErrors = analysis.getSpellingErrors();
+                if (!currentErrors.isEmpty()) {
+                    result.append("\nSpelling errors found: ").append(currentErrors.size());
+                    updateErrorsTable(analysis.getSortedSpellingErrors());
                 } else {
                     result.append("\nNo spelling errors found");
                 }
@@ -313,12 +329,48 @@ public class TextAnalyzerAppGUI extends Application {
         }
     }
 
+    // ======================= ПОИСК СЛОВ =======================
+
+    private void searchWord() {
+        String word = searchField.getText().trim();
+        if (word.isEmpty()) {
+            return;
+        }
+
+        // Индекс поддерживается инкрементальным анализатором: пересчитываются только правки,
+        // запрос - поиск в хеш-таблице без построения результата
+        String text = textInput.getText();
+        incrementalAnalyzer.apply(text, analysisOptions());
+
+        int[] positions = incrementalAnalyzer.positions(word);
+        if (positions.length == 0) {
+            statusLabel.setText("Word '" + word + "' not found");
+            return;
+        }
+
+        // Выделяем первое вхождение в поле ввода
+        int start = incrementalAnalyzer.firstOffset(word);
+        int end = start;
+        while (end < text.length() && !WordTokenizer.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        textInput.selectRange(start, end);
+        statusLabel.setText("Word '" + word + "' found " + positions.length + " time(s) at positions: "
+                + Arrays.toString(positions));
+    }
+
+    private AnalysisOptions analysisOptions() {
+        return AnalysisOptions.defaults()
+                .withSpelling(dictionary.size() > 0)
+                .withTopK(10);
+    }
+
     // ======================= ПОДСВЕТКА ОШИБОК =======================
 
     private void updateErrorHighlight(String text) {
         errorHighlightArea.getChildren().clear();
 
-        if (text == null || text.isEmpty() || dictionary.isEmpty()) {
+        if (text == null || text.isEmpty() || dictionary.size() == 0) {
             errorHighlightArea.getChildren().add(new Text("No errors detected"));
             return;
         }
@@ -422,34 +474,9 @@ public class TextAnalyzerAppGUI extends Application {
         statsTable.setItems(items);
     }
 
-    private void updateErrorsTable(CustomHashMap<String, List<String>> errors) {
-        ObservableList<SpellingError> items = FXCollections.observableArrayList();
-        for (var entry : errors.entries()) {
-            items.add(new SpellingError(entry.key, entry.value));
-        }
-        errorsTable.setItems(items);
-    }
-
-    // ======================= ВНУТРЕННИЕ КЛАССЫ =======================
-
-    /**
-     * Модель для отображения орфографических ошибок
-     */
-    public static class SpellingError {
-        private final String word;
-        private final List<String> suggestions;
-
-        public SpellingError(String word, List<String> suggestions) {
-            this.word = word;
-            this.suggestions = suggestions;
-        }
-
-        public String getWord() {
-            return word;
-        }
-
-        public List<String> getSuggestions() {
-            return suggestions;
-        }
+    // Ошибки уже отсортированы по числу вхождений
+    private void updateErrorsTable(List<SpellingError> errors) {
+        errorsTable.setItems(FXCollections.observableArrayList(errors));
+        errorsTable.sort();
     }
 }
@@ -0,0 +1,77 @@
+package com.chebotarev.textanalyzer.model;
+
+// Параметры полного анализа текста (неизменяемые)
+public class AnalysisOptions {
+    // Минимальный размер фрагмента текста (в символах) для параллельного подсчёта
+    public static final int DEFAULT_MIN_SPLIT_SIZE = 256 * 1024;
+    // Сколько самых частых слов отбирается в результат
+    public static final int DEFAULT_TOP_K = 20;
+
+    private final boolean spelling;   // проверять орфографию
+    private final boolean positions;  // собирать позиции слов
+    private final int parallelism;    // число потоков (1 - последовательный анализ)
+    private final int minSplitSize;   // фрагменты меньше этого размера не делятся
+    private final int topK;           // размер рейтинга самых частых слов
+
+    private AnalysisOptions(boolean spelling, boolean positions, int parallelism, int minSplitSize, int topK) {
+        this.spelling = spelling;
+        this.positions = positions;
+        this.parallelism = parallelism;
+        this.minSplitSize = minSplitSize;
+        this.topK = topK;
+    }
+
+    // По умолчанию: частоты и проверка орфографии, без позиций, в одном потоке
+    public static AnalysisOptions defaults() {
+        return new AnalysisOptions(true, false, 1, DEFAULT_MIN_SPLIT_SIZE, DEFAULT_TOP_K);
+    }
+
+    public AnalysisOptions withSpelling(boolean spelling) {
+        return new AnalysisOptions(spelling, positions, parallelism, minSplitSize, topK);
+    }
+
+    public AnalysisOptions withPositions(boolean positions) {
+        return new AnalysisOptions(spelling, positions, parallelism, minSplitSize, topK);
+    }
+
+    public AnalysisOptions withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        return new AnalysisOptions(spelling, positions, parallelism, minSplitSize, topK);
+    }
+
+    public AnalysisOptions withMinSplitSize(int minSplitSize) {
+        if (minSplitSize < 1) {
+            throw new IllegalArgumentException("Min split size must be positive: " + minSplitSize);
+        }
+        return new AnalysisOptions(spelling, positions, parallelism, minSplitSize, topK);
+    }
+
+    public AnalysisOptions withTopK(int topK) {
+        if (topK < 0) {
+            throw new IllegalArgumentException("Top-K size must not be negative: " + topK);
+        }
+        return new AnalysisOptions(spelling, positions, parallelism, minSplitSize, topK);
+    }
+
+    public boolean isSpelling() {
+        return spelling;
+    }
+
+    public boolean isPositions() {
+        return positions;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getMinSplitSize() {
+        return minSplitSize;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+}
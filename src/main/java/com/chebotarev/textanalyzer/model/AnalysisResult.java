@@ -0,0 +1,150 @@
+package com.chebotarev.textanalyzer.model;
+
+import com.chebotarev.textanalyzer.util.CustomHashMap;
+import com.chebotarev.textanalyzer.util.ObjectIntHashMap;
+import com.chebotarev.textanalyzer.util.WordIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+// Результат однопроходного анализа текста. Не изменяется после создания:
+// конструктор копирует переданные таблицы и индекс (копии таблиц - копирование массивов,
+// индекс копируется при записи), а методы, возвращающие изменяемые таблицы и индекс, отдают копии.
+public class AnalysisResult {
+    private final long totalWords;
+    private final ObjectIntHashMap<String> counts;
+    private final List<WordFrequency> topWords;
+    private List<WordFrequency> sortedFrequencies; // полная сортировка строится по запросу
+    private final CustomHashMap<String, List<String>> spellingErrors; // null, если проверка не выполнялась
+    private final ObjectIntHashMap<String> errorCounts;               // вхождения каждой ошибки
+    private List<SpellingError> sortedErrors; // строится по запросу
+    private final WordIndex index;                                    // null, если позиции не собирались
+
+    public AnalysisResult(long totalWords,
+                          ObjectIntHashMap<String> counts,
+                          List<WordFrequency> topWords,
+                          CustomHashMap<String, List<String>> spellingErrors,
+                          ObjectIntHashMap<String> errorCounts,
+                          WordIndex index) {
+        this.totalWords = totalWords;
+        this.counts = counts.copy();
+        this.topWords = Collections.unmodifiableList(new ArrayList<>(topWords));
+        this.spellingErrors = spellingErrors == null ? null : copyErrors(spellingErrors);
+        this.errorCounts = errorCounts == null ? null : errorCounts.copy();
+        this.index = index == null ? null : index.copy();
+    }
+
+    // Копия таблицы ошибок с неизменяемыми списками предложений
+    private static CustomHashMap<String, List<String>> copyErrors(CustomHashMap<String, List<String>> errors) {
+        CustomHashMap<String, List<String>> copy = new CustomHashMap<>(errors.size());
+        errors.forEach((word, suggestions) -> copy.put(word, Collections.unmodifiableList(new ArrayList<>(suggestions))));
+        return copy;
+    }
+
+    public long getTotalWords() {
+        return totalWords;
+    }
+
+    public int getUniqueWords() {
+        return counts.size();
+    }
+
+    // Частоты слов без упаковки значений (копия)
+    public ObjectIntHashMap<String> getCounts() {
+        return counts.copy();
+    }
+
+    // Частота слова (0, если слово не встречается)
+    public int getFrequency(String word) {
+        return counts.get(word);
+    }
+
+    // Обход частот без копирования таблицы (например, для слияния в сводную таблицу корпуса)
+    public void forEachCount(ObjIntConsumer<? super String> action) {
+        counts.forEach(action);
+    }
+
+    // Частоты слов в виде CustomHashMap (копия)
+    public CustomHashMap<String, Integer> getFrequencies() {
+        return counts.toCustomHashMap();
+    }
+
+    // Самые частые слова (размер задаётся AnalysisOptions.withTopK)
+    public List<WordFrequency> getTopWords() {
+        return topWords;
+    }
+
+    // Все слова по убыванию частоты
+    public synchronized List<WordFrequency> getSortedFrequencies() {
+        if (sortedFrequencies == null) {
+            List<WordFrequency> all = new ArrayList<>(counts.size());
+            counts.forEach((word, count) -> all.add(new WordFrequency(word, count)));
+            all.sort(WordFrequency.BY_FREQUENCY);
+            sortedFrequencies = Collections.unmodifiableList(all);
+        }
+        return sortedFrequencies;
+    }
+
+    public boolean isSpellingChecked() {
+        return spellingErrors != null;
+    }
+
+    // Ошибочные слова и варианты исправления (копия; null, если проверка не выполнялась)
+    public CustomHashMap<String, List<String>> getSpellingErrors() {
+        if (spellingErrors == null) {
+            return null;
+        }
+        // Списки предложений уже неизменяемые, копируется только таблица
+        CustomHashMap<String, List<String>> copy = new CustomHashMap<>(spellingErrors.size());
+        spellingErrors.forEach(copy::put);
+        return copy;
+    }
+
+    // Число различных ошибочных слов (0, если проверка не выполнялась)
+    public int getSpellingErrorCount() {
+        return spellingErrors == null ? 0 : spellingErrors.size();
+    }
+
+    // Число вхождений ошибочного слова в текст (0, если слово не ошибочное)
+    public int getErrorOccurrences(String word) {
+        return errorCounts == null ? 0 : errorCounts.get(word);
+    }
+
+    // Ошибки с числом вхождений, самые частые первыми (пустой список, если проверка не выполнялась)
+    public synchronized List<SpellingError> getSortedSpellingErrors() {
+        if (sortedErrors == null) {
+            List<SpellingError> all = new ArrayList<>();
+            if (spellingErrors != null) {
+                spellingErrors.forEach((word, suggestions) ->
+                        all.add(new SpellingError(word, getErrorOccurrences(word), suggestions)));
+            }
+            all.sort(SpellingError.BY_OCCURRENCES);
+            sortedErrors = Collections.unmodifiableList(all);
+        }
+        return sortedErrors;
+    }
+
+    public boolean hasPositions() {
+        return index != null;
+    }
+
+    // Позиционный индекс текста (копия; null, если позиции не собирались)
+    public WordIndex getIndex() {
+        return index == null ? null : index.copy();
+    }
+
+    // Позиции слова в тексте (пустой список, если слово не встречается)
+    public List<Integer> getPositions(String word) {
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        int[] positions = index.positions(word);
+        List<Integer> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(position);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package com.chebotarev.textanalyzer.model;
+
+import com.chebotarev.textanalyzer.util.ObjectIntHashMap;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+// Результат пакетного анализа каталога: краткая сводка по каждому файлу и сводная таблица по всему корпусу.
+// Полные результаты файлов (таблицы частот, индексы) не хранятся: память определяется
+// размером сводной таблицы и числом файлов, а не объёмом корпуса.
+// Как и AnalysisResult, не изменяется после создания: сводная таблица отдаётся только копией.
+public class CorpusResult {
+    private final List<FileResult> files;
+    private final Map<Path, String> failures;
+    private final long totalWords;
+    private final ObjectIntHashMap<String> counts;
+    private final List<WordFrequency> topWords;
+
+    // Сводка по одному файлу
+    public static class FileResult {
+        private final Path path;
+        private final long totalWords;
+        private final int uniqueWords;
+        private final int misspelledWords; // -1, если орфография не проверялась
+
+        public FileResult(Path path, AnalysisResult result) {
+            this.path = path;
+            this.totalWords = result.getTotalWords();
+            this.uniqueWords = result.getUniqueWords();
+            this.misspelledWords = result.isSpellingChecked() ? result.getSpellingErrorCount() : -1;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getTotalWords() {
+            return totalWords;
+        }
+
+        public int getUniqueWords() {
+            return uniqueWords;
+        }
+
+        public boolean isSpellingChecked() {
+            return misspelledWords >= 0;
+        }
+
+        // Число различных слов с ошибками
+        public int getMisspelledWords() {
+            return misspelledWords;
+        }
+    }
+
+    public CorpusResult(List<FileResult> files, Map<Path, String> failures, long totalWords,
+                        ObjectIntHashMap<String> counts, List<WordFrequency> topWords) {
+        this.files = Collections.unmodifiableList(files);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.totalWords = totalWords;
+        this.counts = counts;
+        this.topWords = Collections.unmodifiableList(topWords);
+    }
+
+    // Результаты по файлам в порядке путей
+    public List<FileResult> getFiles() {
+        return files;
+    }
+
+    // Файлы, которые не удалось прочитать, и причина
+    public Map<Path, String> getFailures() {
+        return failures;
+    }
+
+    public long getTotalWords() {
+        return totalWords;
+    }
+
+    // Сводная таблица частот по всем файлам (копия)
+    public ObjectIntHashMap<String> getCounts() {
+        return counts.copy();
+    }
+
+    // Частота слова во всём корпусе (0, если слово не встречается)
+    public int getFrequency(String word) {
+        return counts.get(word);
+    }
+
+    // Обход сводных частот без копирования таблицы
+    public void forEachCount(ObjIntConsumer<? super String> action) {
+        counts.forEach(action);
+    }
+
+    public int getUniqueWords() {
+        return counts.size();
+    }
+
+    public List<WordFrequency> getTopWords() {
+        return topWords;
+    }
+}
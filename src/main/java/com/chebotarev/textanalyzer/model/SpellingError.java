@@ -0,0 +1,34 @@
+package com.chebotarev.textanalyzer.model;
+
+import java.util.Comparator;
+import java.util.List;
+
+// Орфографическая ошибка: слово, число его вхождений в текст и предложения для исправления
+public class SpellingError {
+    // Порядок по "весу" ошибки: сначала самые частые, при равенстве - по алфавиту
+    public static final Comparator<SpellingError> BY_OCCURRENCES =
+            Comparator.comparingInt(SpellingError::getOccurrences).reversed()
+                    .thenComparing(SpellingError::getWord);
+
+    private final String word;
+    private final int occurrences;
+    private final List<String> suggestions;
+
+    public SpellingError(String word, int occurrences, List<String> suggestions) {
+        this.word = word;
+        this.occurrences = occurrences;
+        this.suggestions = suggestions;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public List<String> getSuggestions() {
+        return suggestions;
+    }
+}
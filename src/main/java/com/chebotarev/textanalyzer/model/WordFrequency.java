@@ -1,8 +1,14 @@
 package com.chebotarev.textanalyzer.model;
 
+import java.util.Comparator;
 
 // Класс для хранения слова и его частоты
 public class WordFrequency {
+    // Порядок рейтинга: по убыванию частоты, при равенстве - по алфавиту
+    public static final Comparator<WordFrequency> BY_FREQUENCY =
+            Comparator.comparingInt(WordFrequency::getFrequency).reversed()
+                    .thenComparing(WordFrequency::getWord);
+
     private final String word;  // неизменяемое слово
     private final int frequency; // частота встречаемости
 
@@ -0,0 +1,86 @@
+package com.chebotarev.textanalyzer.service;
+
+import com.chebotarev.textanalyzer.model.AnalysisOptions;
+import com.chebotarev.textanalyzer.model.AnalysisResult;
+import com.chebotarev.textanalyzer.util.CustomHashMap;
+import com.chebotarev.textanalyzer.util.ObjectIntHashMap;
+import com.chebotarev.textanalyzer.util.SpellChecker;
+import com.chebotarev.textanalyzer.util.WordIndex;
+import com.chebotarev.textanalyzer.util.WordTokenizer;
+
+import java.util.List;
+
+// Собирает все показатели анализа за один проход токенизатора.
+// Ошибочные слова при проходе только подсчитываются; предложения для них
+// строятся один раз в toResult, когда известны все различные ошибки.
+class AnalysisAccumulator implements WordTokenizer.Handler {
+    private final SpellChecker spellChecker;
+    private final ObjectIntHashMap<String> frequencies = new ObjectIntHashMap<>();
+    private final ObjectIntHashMap<String> errorCounts; // вхождения каждого ошибочного слова
+    private final WordIndex index;
+    private final int topK;
+    private long totalWords; // потоковый анализ может насчитать больше 2^31 слов
+
+    AnalysisAccumulator(SpellChecker spellChecker, AnalysisOptions options) {
+        this.spellChecker = spellChecker;
+        this.errorCounts = options.isSpelling() ? new ObjectIntHashMap<>() : null;
+        this.index = options.isPositions() ? new WordIndex() : null;
+        this.topK = options.getTopK();
+    }
+
+    WordTokenizer newTokenizer() {
+        return new WordTokenizer(this, errorCounts != null);
+    }
+
+    @Override
+    public void onWord(WordTokenizer token) {
+        // Частоты считаются по буквам и цифрам, строка создаётся только для нового слова
+        frequencies.increment(token.wordChars(), 0, token.wordLength(), token.wordHash());
+
+        if (token.letterLength() == 0) {
+            return;
+        }
+        totalWords++;
+
+        if (index != null) {
+            index.onWord(token);
+        }
+    }
+
+    @Override
+    public void onLetterRun(WordTokenizer token) {
+        // Фильтруем короткие слова (длина <= 3)
+        if (token.runLength() <= 3) {
+            return;
+        }
+        char[] run = token.runChars();
+        int length = token.runLength();
+        int hash = token.runHash();
+        // Словарь проверяется только при первой встрече ошибочного слова
+        if (errorCounts.get(run, 0, length, hash) > 0 || !spellChecker.isCorrect(run, 0, length, hash)) {
+            errorCounts.increment(run, 0, length, hash);
+        }
+    }
+
+    // Слияние с результатом соседнего фрагмента текста (позиции не поддерживаются)
+    void merge(AnalysisAccumulator other) {
+        totalWords += other.totalWords;
+        other.frequencies.forEach(frequencies::addTo);
+        if (errorCounts != null) {
+            other.errorCounts.forEach(errorCounts::addTo);
+        }
+    }
+
+    ObjectIntHashMap<String> frequencies() {
+        return frequencies;
+    }
+
+    AnalysisResult toResult(TextAnalysisService service) {
+        if (index != null) {
+            index.trim();
+        }
+        CustomHashMap<String, List<String>> errors = errorCounts == null ? null : service.suggestAll(errorCounts);
+        return new AnalysisResult(totalWords, frequencies, service.topK(frequencies, topK),
+                errors, errorCounts, index);
+    }
+}
@@ -0,0 +1,95 @@
+package com.chebotarev.textanalyzer.service;
+
+import com.chebotarev.textanalyzer.model.AnalysisOptions;
+import com.chebotarev.textanalyzer.model.AnalysisResult;
+import com.chebotarev.textanalyzer.model.CorpusResult;
+import com.chebotarev.textanalyzer.util.ObjectIntHashMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Пакетный анализ каталога: каждый файл обрабатывается в своём виртуальном потоке,
+// число одновременно открытых файлов ограничено семафором.
+// Частоты файла добавляются в сводную таблицу сразу после его анализа, от файла остаётся
+// только краткая сводка, поэтому в памяти одновременно не больше maxOpenFiles полных результатов.
+public class CorpusAnalyzer {
+    public static final int DEFAULT_MAX_OPEN_FILES = 64;
+
+    private final TextAnalysisService service;
+    private final AnalysisOptions options;
+    private final int maxOpenFiles;
+
+    public CorpusAnalyzer(TextAnalysisService service, AnalysisOptions options) {
+        this(service, options, DEFAULT_MAX_OPEN_FILES);
+    }
+
+    public CorpusAnalyzer(TextAnalysisService service, AnalysisOptions options, int maxOpenFiles) {
+        if (maxOpenFiles < 1) {
+            throw new IllegalArgumentException("Max open files must be positive: " + maxOpenFiles);
+        }
+        this.service = service;
+        this.options = options;
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    public CorpusResult analyze(Path directory) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            paths = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+
+        Semaphore openFiles = new Semaphore(maxOpenFiles);
+        ObjectIntHashMap<String> counts = new ObjectIntHashMap<>();
+        List<Future<CorpusResult.FileResult>> futures = new ArrayList<>(paths.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path path : paths) {
+                futures.add(executor.submit(() -> {
+                    openFiles.acquire();
+                    try {
+                        AnalysisResult result = service.analyze(path, options);
+                        CorpusResult.FileResult summary = new CorpusResult.FileResult(path, result);
+                        // Под блокировкой только слияние частот, без копирования таблицы файла
+                        synchronized (counts) {
+                            result.forEachCount(counts::addTo);
+                        }
+                        return summary;
+                    } finally {
+                        openFiles.release();
+                    }
+                }));
+            }
+        }
+
+        List<CorpusResult.FileResult> files = new ArrayList<>(paths.size());
+        Map<Path, String> failures = new TreeMap<>();
+        long totalWords = 0;
+        for (int i = 0; i < paths.size(); i++) {
+            CorpusResult.FileResult file;
+            try {
+                file = futures.get(i).get();
+            } catch (ExecutionException e) {
+                failures.put(paths.get(i), String.valueOf(e.getCause().getMessage()));
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Corpus analysis interrupted", e);
+            }
+            files.add(file);
+            totalWords += file.getTotalWords();
+        }
+        return new CorpusResult(files, failures, totalWords, counts,
+                service.topK(counts, options.getTopK()));
+    }
+}
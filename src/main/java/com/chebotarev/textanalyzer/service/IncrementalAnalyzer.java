@@ -0,0 +1,246 @@
+package com.chebotarev.textanalyzer.service;
+
+import com.chebotarev.textanalyzer.model.AnalysisOptions;
+import com.chebotarev.textanalyzer.model.AnalysisResult;
+import com.chebotarev.textanalyzer.util.CustomHashMap;
+import com.chebotarev.textanalyzer.util.ObjectIntHashMap;
+import com.chebotarev.textanalyzer.util.SpellChecker;
+import com.chebotarev.textanalyzer.util.WordIndex;
+import com.chebotarev.textanalyzer.util.WordTokenizer;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Инкрементальный анализ редактируемого текста.
+// Хранит последний проанализированный текст, находит изменённый участок
+// (общие префикс и суффикс, расширенные до границ слов) и пересчитывает
+// частоты, ошибки и позиции только для слов этого участка.
+// Возвращаемый AnalysisResult получает копии таблиц и индекса и не меняется при следующих вызовах update().
+// Копирование линейно по числу различных слов, как и выбор топа слов: списки вхождений индекса
+// общие с результатом и копируются анализатором только для слов, которые затрагивает следующая правка.
+public class IncrementalAnalyzer {
+    private final TextAnalysisService service;
+    private final SpellChecker spellChecker;
+
+    private String text = "";
+    private boolean spelling;
+    private ObjectIntHashMap<String> frequencies = new ObjectIntHashMap<>();
+    private CustomHashMap<String, List<String>> errors = new CustomHashMap<>();
+    private ObjectIntHashMap<String> errorCounts = new ObjectIntHashMap<>(); // вхождения каждой ошибки
+    private WordIndex index = new WordIndex();
+    private int totalWords;
+
+    // Смещения начала всех непробельных фрагментов текста (по возрастанию)
+    private int[] tokenStarts = new int[64];
+    private int tokenCount;
+
+    IncrementalAnalyzer(TextAnalysisService service, SpellChecker spellChecker) {
+        this.service = service;
+        this.spellChecker = spellChecker;
+    }
+
+    public AnalysisResult update(String newText, AnalysisOptions options) {
+        apply(newText, options);
+        return new AnalysisResult(totalWords, frequencies, service.topK(frequencies, options.getTopK()),
+                spelling ? errors : null, spelling ? errorCounts : null, index);
+    }
+
+    // Пересчитывает изменённый участок без построения результата (например, перед поиском слова)
+    public void apply(String newText, AnalysisOptions options) {
+        if (newText == null) {
+            newText = "";
+        }
+        if (options.isSpelling() != spelling) {
+            // Смена режима проверки требует полного пересчёта
+            reset(options.isSpelling());
+        }
+        applyEdit(newText);
+    }
+
+    // Номера слов в последнем тексте, переданном apply() или update() (без копирования индекса)
+    public int[] positions(String word) {
+        return index.positions(word);
+    }
+
+    // Смещение первого вхождения слова в последнем тексте или -1
+    public int firstOffset(String word) {
+        return index.firstOffset(word);
+    }
+
+    private void reset(boolean spelling) {
+        this.spelling = spelling;
+        text = "";
+        frequencies = new ObjectIntHashMap<>();
+        errors = new CustomHashMap<>();
+        errorCounts = new ObjectIntHashMap<>();
+        index = new WordIndex();
+        totalWords = 0;
+        tokenCount = 0;
+    }
+
+    private void applyEdit(String newText) {
+        String oldText = text;
+        int oldLength = oldText.length();
+        int newLength = newText.length();
+
+        // Общий префикс и суффикс (не перекрываются)
+        int limit = Math.min(oldLength, newLength);
+        int prefix = 0;
+        while (prefix < limit && oldText.charAt(prefix) == newText.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix == oldLength && oldLength == newLength) {
+            return;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix
+                && oldText.charAt(oldLength - 1 - suffix) == newText.charAt(newLength - 1 - suffix)) {
+            suffix++;
+        }
+
+        // Расширяем участок до границ слов
+        int start = prefix;
+        while (start > 0 && !WordTokenizer.isWhitespace(oldText.charAt(start - 1))) {
+            start--;
+        }
+        int oldEnd = oldLength - suffix;
+        int newEnd = newLength - suffix;
+        while (oldEnd < oldLength && !WordTokenizer.isWhitespace(oldText.charAt(oldEnd))) {
+            oldEnd++;
+            newEnd++;
+        }
+
+        int firstToken = lowerBound(start);
+        int oldTokens = lowerBound(oldEnd) - firstToken;
+
+        // 1. Вычитаем слова старого участка
+        subtract(oldText, start, oldEnd, firstToken);
+
+        // 2. Обновляем таблицу начал слов и сдвигаем позиции после участка
+        int[] newStarts = scanTokenStarts(newText, start, newEnd);
+        int positionDelta = newStarts.length - oldTokens;
+        int offsetDelta = newLength - oldLength;
+        replaceTokenStarts(firstToken, oldTokens, newStarts, offsetDelta);
+        index.shift(firstToken + oldTokens, positionDelta, offsetDelta);
+
+        // 3. Добавляем слова нового участка
+        add(newText, start, newEnd, firstToken);
+
+        text = newText;
+    }
+
+    // Участок - часть строки, поэтому номера и смещения токенизатора помещаются в int
+    private void subtract(String source, int from, int to, int firstToken) {
+        WordTokenizer tokenizer = new WordTokenizer(new WordTokenizer.Handler() {
+            @Override
+            public void onWord(WordTokenizer token) {
+                if (frequencies.addTo(token.wordChars(), 0, token.wordLength(), token.wordHash(), -1) == 0) {
+                    frequencies.remove(token.word());
+                }
+                if (token.letterLength() > 0) {
+                    totalWords--;
+                    index.remove(token, firstToken + (int) token.index());
+                }
+            }
+
+            @Override
+            public void onLetterRun(WordTokenizer token) {
+                if (token.runLength() <= 3) {
+                    return;
+                }
+                char[] run = token.runChars();
+                int length = token.runLength();
+                int hash = token.runHash();
+                if (errorCounts.get(run, 0, length, hash) == 0) {
+                    return;
+                }
+                if (errorCounts.addTo(run, 0, length, hash, -1) == 0) {
+                    String word = token.letterRun();
+                    errorCounts.remove(word);
+                    errors.remove(word);
+                }
+            }
+        }, spelling);
+        tokenizer.feed(source, from, to);
+        tokenizer.finish();
+    }
+
+    private void add(String source, int from, int to, int firstToken) {
+        WordTokenizer tokenizer = new WordTokenizer(new WordTokenizer.Handler() {
+            @Override
+            public void onWord(WordTokenizer token) {
+                frequencies.increment(token.wordChars(), 0, token.wordLength(), token.wordHash());
+                if (token.letterLength() > 0) {
+                    totalWords++;
+                    index.insert(token, firstToken + (int) token.index(), from + (int) token.start());
+                }
+            }
+
+            @Override
+            public void onLetterRun(WordTokenizer token) {
+                // Фильтруем короткие слова (длина <= 3)
+                if (token.runLength() <= 3) {
+                    return;
+                }
+                char[] run = token.runChars();
+                int length = token.runLength();
+                int hash = token.runHash();
+                if (errorCounts.get(run, 0, length, hash) > 0) {
+                    errorCounts.increment(run, 0, length, hash);
+                } else if (!spellChecker.isCorrect(run, 0, length, hash)) {
+                    String word = token.letterRun();
+                    errorCounts.put(word, 1);
+                    errors.put(word, spellChecker.getSuggestions(word));
+                }
+            }
+        }, spelling);
+        tokenizer.feed(source, from, to);
+        tokenizer.finish();
+    }
+
+    // Число слов, начинающихся раньше offset
+    private int lowerBound(int offset) {
+        int low = 0;
+        int high = tokenCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tokenStarts[mid] < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] scanTokenStarts(String source, int from, int to) {
+        int[] starts = new int[8];
+        int count = 0;
+        boolean inWord = false;
+        for (int i = from; i < to; i++) {
+            boolean whitespace = WordTokenizer.isWhitespace(source.charAt(i));
+            if (!whitespace && !inWord) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i;
+            }
+            inWord = !whitespace;
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private void replaceTokenStarts(int first, int removed, int[] inserted, int offsetDelta) {
+        int newCount = tokenCount - removed + inserted.length;
+        if (newCount > tokenStarts.length) {
+            tokenStarts = Arrays.copyOf(tokenStarts, Math.max(newCount, tokenStarts.length * 2));
+        }
+        int tail = first + removed;
+        System.arraycopy(tokenStarts, tail, tokenStarts, first + inserted.length, tokenCount - tail);
+        System.arraycopy(inserted, 0, tokenStarts, first, inserted.length);
+        tokenCount = newCount;
+        for (int i = first + inserted.length; i < tokenCount; i++) {
+            tokenStarts[i] += offsetDelta;
+        }
+    }
+}
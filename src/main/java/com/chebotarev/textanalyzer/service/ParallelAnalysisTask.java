@@ -0,0 +1,59 @@
+package com.chebotarev.textanalyzer.service;
+
+import com.chebotarev.textanalyzer.model.AnalysisOptions;
+import com.chebotarev.textanalyzer.util.SpellChecker;
+import com.chebotarev.textanalyzer.util.WordTokenizer;
+
+import java.util.concurrent.RecursiveTask;
+
+// Параллельный подсчёт: текст делится пополам по границам слов,
+// каждый фрагмент считается в собственный аккумулятор, затем результаты сливаются.
+// ForkJoinTask наследует Serializable, но задача живёт только внутри пула и не сериализуется.
+@SuppressWarnings("serial")
+class ParallelAnalysisTask extends RecursiveTask<AnalysisAccumulator> {
+    private static final long serialVersionUID = 1L;
+
+    private final CharSequence text;
+    private final int from;
+    private final int to;
+    private final SpellChecker spellChecker;
+    private final AnalysisOptions options;
+
+    ParallelAnalysisTask(CharSequence text, int from, int to,
+                         SpellChecker spellChecker, AnalysisOptions options) {
+        this.text = text;
+        this.from = from;
+        this.to = to;
+        this.spellChecker = spellChecker;
+        this.options = options;
+    }
+
+    @Override
+    protected AnalysisAccumulator compute() {
+        if (to - from > options.getMinSplitSize()) {
+            int middle = splitPoint(from + (to - from) / 2);
+            if (middle < to) {
+                ParallelAnalysisTask left = new ParallelAnalysisTask(text, from, middle, spellChecker, options);
+                ParallelAnalysisTask right = new ParallelAnalysisTask(text, middle, to, spellChecker, options);
+                left.fork();
+                AnalysisAccumulator result = right.compute();
+                result.merge(left.join());
+                return result;
+            }
+        }
+
+        AnalysisAccumulator accumulator = new AnalysisAccumulator(spellChecker, options);
+        WordTokenizer tokenizer = accumulator.newTokenizer();
+        tokenizer.feed(text, from, to);
+        tokenizer.finish();
+        return accumulator;
+    }
+
+    // Сдвигает точку разреза вперёд до пробельного символа, чтобы не разрезать слово
+    private int splitPoint(int index) {
+        while (index < to && !WordTokenizer.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -1,52 +1,211 @@
 package com.chebotarev.textanalyzer.service;
 
 
+import com.chebotarev.textanalyzer.model.AnalysisOptions;
+import com.chebotarev.textanalyzer.model.AnalysisResult;
+import com.chebotarev.textanalyzer.model.SpellingError;
 import com.chebotarev.textanalyzer.model.WordFrequency;
 import com.chebotarev.textanalyzer.util.CustomHashMap;
+import com.chebotarev.textanalyzer.util.DictionaryLookup;
+import com.chebotarev.textanalyzer.util.ObjectIntHashMap;
+import com.chebotarev.textanalyzer.util.MappedTextSource;
 import com.chebotarev.textanalyzer.util.SpellChecker;
+import com.chebotarev.textanalyzer.util.WordIndex;
+import com.chebotarev.textanalyzer.util.WordTokenizer;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 // Сервис для анализа текста
 public class TextAnalysisService {
+    // Размер порции при потоковом чтении (в символах)
+    private static final int CHUNK_SIZE = 64 * 1024;
+    // С какого числа различных ошибок предложения подбираются параллельно
+    private static final int PARALLEL_SUGGESTIONS = 16;
+
     private final SpellChecker spellChecker;
 
     public TextAnalysisService(CustomHashMap<String, Boolean> dictionary) {
         this.spellChecker = new SpellChecker(dictionary);
     }
 
+    public TextAnalysisService(DictionaryLookup dictionary) {
+        this.spellChecker = new SpellChecker(dictionary);
+    }
+
+    // Проверка орфографии с заранее настроенным SpellChecker (например, с другим SuggestionEngine)
+    public TextAnalysisService(SpellChecker spellChecker) {
+        this.spellChecker = spellChecker;
+    }
+
+    public SpellChecker getSpellChecker() {
+        return spellChecker;
+    }
+
+    // Полный анализ текста за один проход
+    public AnalysisResult analyze(String text, AnalysisOptions options) {
+        if (isParallel(text, options)) {
+            return analyzeParallel(text, options).toResult(this);
+        }
+        AnalysisAccumulator accumulator = new AnalysisAccumulator(spellChecker, options);
+        if (text != null && !text.isEmpty()) {
+            WordTokenizer tokenizer = accumulator.newTokenizer();
+            tokenizer.feed(text);
+            tokenizer.finish();
+        }
+        return accumulator.toResult(this);
+    }
+
+    // Параллельный режим не собирает позиции: номера слов зависят от предыдущих фрагментов
+    private static boolean isParallel(String text, AnalysisOptions options) {
+        return options.getParallelism() > 1
+                && !options.isPositions()
+                && text != null
+                && text.length() > options.getMinSplitSize();
+    }
+
+    private AnalysisAccumulator analyzeParallel(String text, AnalysisOptions options) {
+        ForkJoinPool pool = new ForkJoinPool(options.getParallelism());
+        try {
+            return pool.invoke(new ParallelAnalysisTask(text, 0, text.length(), spellChecker, options));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Потоковый анализ: текст читается порциями фиксированного размера,
+    // память ограничена размером словаря текста, а не объёмом входных данных
+    public AnalysisResult analyze(Reader reader, AnalysisOptions options) throws IOException {
+        AnalysisAccumulator accumulator = new AnalysisAccumulator(spellChecker, options);
+        WordTokenizer tokenizer = accumulator.newTokenizer();
+        char[] buffer = new char[CHUNK_SIZE];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            // Слово на границе порций собирается токенизатором целиком
+            tokenizer.feed(buffer, 0, read);
+        }
+        tokenizer.finish();
+        return accumulator.toResult(this);
+    }
+
+    public AnalysisResult analyze(InputStream in, AnalysisOptions options) throws IOException {
+        return analyze(new InputStreamReader(in, StandardCharsets.UTF_8), options);
+    }
+
+    public AnalysisResult analyze(Path path, AnalysisOptions options) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return analyze(in, options);
+        }
+    }
+
+    // Анализ локального файла через отображение в память (FileChannel.map):
+    // UTF-8 декодируется прямо из страничного кэша ОС, без копии в String
+    public AnalysisResult analyzeMapped(Path path, AnalysisOptions options) throws IOException {
+        AnalysisAccumulator accumulator = new AnalysisAccumulator(spellChecker, options);
+        WordTokenizer tokenizer = accumulator.newTokenizer();
+        MappedTextSource.feed(path, tokenizer);
+        tokenizer.finish();
+        return accumulator.toResult(this);
+    }
+
+    // Анализатор для редактируемого текста (например, в GUI)
+    public IncrementalAnalyzer newIncrementalAnalyzer() {
+        return new IncrementalAnalyzer(this, spellChecker);
+    }
+
+    // Индекс для многократного поиска слов: строится один раз на текст
+    public WordIndex buildIndex(String text) {
+        return WordIndex.build(text);
+    }
+
+    public WordIndex buildIndexMapped(Path path) throws IOException {
+        WordIndex index = new WordIndex();
+        WordTokenizer tokenizer = new WordTokenizer(index);
+        MappedTextSource.feed(path, tokenizer);
+        tokenizer.finish();
+        index.trim();
+        return index;
+    }
+
     public int countTotalWords(String text) {
         if (text == null || text.isEmpty()) return 0;
-        int count = 0;
-        StringTokenizer tokenizer = new StringTokenizer(text);
-        while (tokenizer.hasMoreTokens()) {
-            String word = tokenizer.nextToken()
-                    .toLowerCase()
-                    .replaceAll("[^a-zа-яё]", "");
-            if (!word.isEmpty()) {
-                count++;
+        int[] count = {0};
+        WordTokenizer.tokenize(text, token -> {
+            if (token.letterLength() > 0) {
+                count[0]++;
             }
-        }
-        return count;
+        });
+        return count[0];
     }
 
     public CustomHashMap<String, List<String>> checkSpelling(String text) {
-        CustomHashMap<String, List<String>> errors = new CustomHashMap<>();
-        if (text == null || text.isEmpty()) return errors;
+        return suggestAll(countSpellingErrors(text));
+    }
 
-        String[] words = text.toLowerCase()
-                .replaceAll("[^a-zа-яё\\s]", " ")
-                .replaceAll("\\s+", " ")
-                .trim()
-                .split("\\s+");
+    // Ошибки с числом вхождений, самые частые первыми
+    public List<SpellingError> findSpellingErrors(String text) {
+        ObjectIntHashMap<String> counts = countSpellingErrors(text);
+        CustomHashMap<String, List<String>> suggestions = suggestAll(counts);
+        List<SpellingError> errors = new ArrayList<>(counts.size());
+        counts.forEach((word, count) -> errors.add(new SpellingError(word, count, suggestions.get(word))));
+        errors.sort(SpellingError.BY_OCCURRENCES);
+        return errors;
+    }
+
+    // Первый этап проверки: различные ошибочные слова и число их вхождений, без предложений
+    private ObjectIntHashMap<String> countSpellingErrors(String text) {
+        ObjectIntHashMap<String> counts = new ObjectIntHashMap<>();
+        if (text == null || text.isEmpty()) return counts;
+
+        // Слова для проверки - непрерывные последовательности букв
+        WordTokenizer tokenizer = new WordTokenizer(new WordTokenizer.Handler() {
+            @Override
+            public void onWord(WordTokenizer token) {
+            }
 
-        for (String word : words) {
-            if (!word.isEmpty() && !spellChecker.isCorrect(word)) {
+            @Override
+            public void onLetterRun(WordTokenizer token) {
+                char[] run = token.runChars();
+                int length = token.runLength();
+                int hash = token.runHash();
                 // Фильтруем короткие слова (длина <= 3)
-                if (word.length() > 3) {
-                    errors.put(word, spellChecker.getSuggestions(word));
+                if (length > 3 && (counts.get(run, 0, length, hash) > 0
+                        || !spellChecker.isCorrect(run, 0, length, hash))) {
+                    counts.increment(run, 0, length, hash);
                 }
             }
+        }, true);
+        tokenizer.feed(text);
+        tokenizer.finish();
+        return counts;
+    }
+
+    // Второй этап: предложения для каждого различного ошибочного слова - один раз,
+    // при большом числе слов параллельно на всех ядрах
+    CustomHashMap<String, List<String>> suggestAll(ObjectIntHashMap<String> errorCounts) {
+        String[] words = new String[errorCounts.size()];
+        int[] filled = {0};
+        errorCounts.forEach((word, count) -> words[filled[0]++] = word);
+
+        // Список фиксированного размера: потоки записывают только свои ячейки через set
+        List<List<String>> suggestions = new ArrayList<>(Collections.nCopies(words.length, null));
+        IntStream indices = IntStream.range(0, words.length);
+        if (words.length >= PARALLEL_SUGGESTIONS) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> suggestions.set(i, spellChecker.getSuggestions(words[i])));
+
+        CustomHashMap<String, List<String>> errors = new CustomHashMap<>(words.length);
+        for (int i = 0; i < words.length; i++) {
+            errors.put(words[i], suggestions.get(i));
         }
         return errors;
     }
@@ -58,53 +217,54 @@ public class TextAnalysisService {
         }
 
         String normalizedSearch = searchWord.toLowerCase().trim();
-        String[] words = text.toLowerCase().split("\\s+");
-
-        for (int i = 0; i < words.length; i++) {
-            String cleanWord = words[i].replaceAll("[^a-zа-яё]", "");
-            if (cleanWord.equals(normalizedSearch)) {
-                positions.add(i);
+        WordTokenizer.tokenize(text, token -> {
+            if (token.letterEquals(normalizedSearch)) {
+                positions.add((int) token.index()); // номер слова в строке помещается в int
             }
-        }
+        });
         return positions;
     }
     // Подсчет частоты слов
     public CustomHashMap<String, Integer> countWords(String text) {
-        CustomHashMap<String, Integer> frequencyMap = new CustomHashMap<>();
-        if (text == null || text.isEmpty()) return frequencyMap;
-
-        // Используем более эффективный способ разделения слов
-        StringTokenizer tokenizer = new StringTokenizer(text);
-        while (tokenizer.hasMoreTokens()) {
-            String word = tokenizer.nextToken().toLowerCase()
-                    .replaceAll("[^a-zа-яё0-9]", ""); // Разрешаем цифры в словах
-
-            if (!word.isEmpty()) {
-                Integer count = frequencyMap.get(word);
-                frequencyMap.put(word, (count == null) ? 1 : count + 1);
-            }
+        if (text == null || text.isEmpty()) return new CustomHashMap<>();
+
+        // Цифры в словах сохраняются. Счёт идёт без упаковки, новая строка
+        // создаётся только при первом появлении слова
+        ObjectIntHashMap<String> counts = new ObjectIntHashMap<>();
+        WordTokenizer.tokenize(text, token ->
+                counts.increment(token.wordChars(), 0, token.wordLength(), token.wordHash()));
+        return counts.toCustomHashMap();
+    }
+
+    // Параллельный подсчёт частоты слов на ForkJoinPool
+    public CustomHashMap<String, Integer> countWordsParallel(String text, int parallelism, int minSplitSize) {
+        AnalysisOptions options = AnalysisOptions.defaults()
+                .withSpelling(false)
+                .withParallelism(parallelism)
+                .withMinSplitSize(minSplitSize);
+        if (!isParallel(text, options)) {
+            return countWords(text);
         }
-        return frequencyMap;
+        return analyzeParallel(text, options).frequencies().toCustomHashMap();
     }
 
-    // Сортировка по частоте (по убыванию)
+    // Сортировка по частоте (по убыванию, при равенстве - по алфавиту)
     public List<WordFrequency> sortByFrequency(CustomHashMap<String, Integer> map) {
-        List<WordFrequency> result = new ArrayList<>();
-        List<CustomHashMap.Entry<String, Integer>> entries = map.entries();
+        List<WordFrequency> result = new ArrayList<>(map.size());
 
         // Преобразование в список объектов WordFrequency
-        for (CustomHashMap.Entry<String, Integer> entry : entries) {
-            result.add(new WordFrequency(entry.key, entry.value));
-        }
-
-        // Сортировка по убыванию частоты
-        Collections.sort(result, new Comparator<WordFrequency>() {
-            @Override
-            public int compare(WordFrequency w1, WordFrequency w2) {
-                return w2.getFrequency() - w1.getFrequency();
-            }
-        });
+        map.forEach((word, count) -> result.add(new WordFrequency(word, count)));
 
+        result.sort(WordFrequency.BY_FREQUENCY);
         return result;
     }
+
+    // k самых частых слов в том же порядке, что и sortByFrequency, без полной сортировки
+    public List<WordFrequency> topK(CustomHashMap<String, Integer> map, int k) {
+        return TopKSelector.select(map, k);
+    }
+
+    public List<WordFrequency> topK(ObjectIntHashMap<String> counts, int k) {
+        return TopKSelector.select(counts, k);
+    }
 }
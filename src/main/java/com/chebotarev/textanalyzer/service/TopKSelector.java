@@ -0,0 +1,161 @@
+package com.chebotarev.textanalyzer.service;
+
+import com.chebotarev.textanalyzer.model.WordFrequency;
+import com.chebotarev.textanalyzer.util.CustomHashMap;
+import com.chebotarev.textanalyzer.util.ObjectIntHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+// Выбор k самых частых слов ограниченной кучей: O(n log k) вместо полной сортировки.
+// Порядок совпадает с WordFrequency.BY_FREQUENCY (частота по убыванию, затем слово).
+class TopKSelector {
+    // Начиная с этого размера словаря куча строится параллельно по частям
+    static final int PARALLEL_THRESHOLD = 200_000;
+
+    private final String[] words;
+    private final int[] counts;
+    private int size;
+
+    private TopKSelector(int k) {
+        this.words = new String[k];
+        this.counts = new int[k];
+    }
+
+    static List<WordFrequency> select(CustomHashMap<String, Integer> map, int k) {
+        if (k <= 0 || map.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int limit = Math.min(k, map.size());
+        // Частичные кучи по диапазонам бакетов (параллельно - через spliterator), затем слияние
+        TopKSelector selector = StreamSupport.stream(map.spliterator(), map.size() >= PARALLEL_THRESHOLD)
+                .collect(() -> new TopKSelector(limit),
+                        (heap, entry) -> heap.offer(entry.key, entry.value),
+                        TopKSelector::offerAll);
+        return selector.toSortedList();
+    }
+
+    // Обход ячеек таблицы без промежуточного списка записей
+    static List<WordFrequency> select(ObjectIntHashMap<String> counts, int k) {
+        if (k <= 0 || counts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int limit = Math.min(k, counts.size());
+        RangeSelector range = (from, to) -> {
+            TopKSelector selector = new TopKSelector(limit);
+            for (int slot = from; slot < to; slot++) {
+                String word = counts.keyAt(slot);
+                if (word != null) {
+                    selector.offer(word, counts.valueAt(slot));
+                }
+            }
+            return selector;
+        };
+        return select(range, counts.capacity(), counts.size() >= PARALLEL_THRESHOLD, limit);
+    }
+
+    // Куча по элементам [from, to) источника
+    private interface RangeSelector {
+        TopKSelector select(int from, int to);
+    }
+
+    private static List<WordFrequency> select(RangeSelector range, int length, boolean parallel, int k) {
+        TopKSelector selector = parallel ? selectParallel(range, length, k) : range.select(0, length);
+        return selector.toSortedList();
+    }
+
+    // Частичные кучи по фрагментам источника, затем слияние в одну
+    private static TopKSelector selectParallel(RangeSelector range, int length, int k) {
+        int parts = Runtime.getRuntime().availableProcessors();
+        int chunk = (length + parts - 1) / parts;
+        return IntStream.range(0, parts)
+                .parallel()
+                .mapToObj(part -> range.select(Math.min(length, part * chunk),
+                        Math.min(length, (part + 1) * chunk)))
+                .reduce(new TopKSelector(k), TopKSelector::mergeWith);
+    }
+
+    private TopKSelector mergeWith(TopKSelector other) {
+        TopKSelector merged = new TopKSelector(words.length);
+        merged.offerAll(this);
+        merged.offerAll(other);
+        return merged;
+    }
+
+    private void offerAll(TopKSelector other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.words[i], other.counts[i]);
+        }
+    }
+
+    private void offer(String word, int count) {
+        if (size < words.length) {
+            words[size] = word;
+            counts[size] = count;
+            siftUp(size++);
+        } else if (isWorse(words[0], counts[0], word, count)) {
+            // Вершина кучи - худший из k лучших, заменяем его
+            words[0] = word;
+            counts[0] = count;
+            siftDown(0);
+        }
+    }
+
+    // true, если (w1, c1) стоит в рейтинге ниже (w2, c2)
+    private static boolean isWorse(String w1, int c1, String w2, int c2) {
+        if (c1 != c2) {
+            return c1 < c2;
+        }
+        return w1.compareTo(w2) > 0;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!isWorse(words[i], counts[i], words[parent], counts[parent])) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && isWorse(words[right], counts[right], words[left], counts[left])) {
+                worst = right;
+            }
+            if (!isWorse(words[worst], counts[worst], words[i], counts[i])) {
+                break;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int i, int j) {
+        String word = words[i];
+        words[i] = words[j];
+        words[j] = word;
+        int count = counts[i];
+        counts[i] = counts[j];
+        counts[j] = count;
+    }
+
+    private List<WordFrequency> toSortedList() {
+        List<WordFrequency> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new WordFrequency(words[i], counts[i]));
+        }
+        result.sort(WordFrequency.BY_FREQUENCY);
+        return result;
+    }
+}
@@ -0,0 +1,150 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+// Подбор исправлений по BK-дереву (дерево Буркхарда-Келлера) над словами словаря.
+// Каждый потомок узла хранится под расстоянием до слова узла; по неравенству
+// треугольника при поиске на расстоянии maxDistance достаточно спускаться только
+// в потомков с расстоянием из [d - maxDistance, d + maxDistance], где d - расстояние
+// от запроса до слова узла. Поэтому проверяется лишь часть словаря.
+// Памяти нужно по одному узлу на слово - меньше, чем индексу удалений SymSpellEngine.
+// Метрика - полное расстояние Дамерау-Левенштейна. Дерево строится один раз:
+// изменения словаря после построения не учитываются.
+public class BkTreeEngine implements SuggestionEngine {
+    public static final int DEFAULT_MAX_DISTANCE = 2;
+    public static final int DEFAULT_LIMIT = 10;
+
+    private final int maxDistance;
+    private final int limit;
+    private Node root;
+    private int size;
+
+    private static class Node {
+        final String word;
+        int[] distances; // расстояния до потомков
+        Node[] children;
+        int childCount;
+
+        Node(String word) {
+            this.word = word;
+        }
+
+        Node child(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (distances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, Node child) {
+            if (children == null) {
+                distances = new int[2];
+                children = new Node[2];
+            } else if (childCount == children.length) {
+                distances = Arrays.copyOf(distances, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            distances[childCount] = distance;
+            children[childCount] = child;
+            childCount++;
+        }
+    }
+
+    public BkTreeEngine(DictionaryLookup dictionary) {
+        this(dictionary, DEFAULT_MAX_DISTANCE, DEFAULT_LIMIT);
+    }
+
+    // maxDistance - наибольшее расстояние до предложения, limit - наибольшее число предложений
+    public BkTreeEngine(DictionaryLookup dictionary, int maxDistance, int limit) {
+        if (maxDistance < 1) {
+            throw new IllegalArgumentException("Max distance must be positive: " + maxDistance);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        this.maxDistance = maxDistance;
+        this.limit = limit;
+        dictionary.forEachWord(this::add);
+    }
+
+    private void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = EditDistance.fullDamerauLevenshtein(word, node.word);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.child(distance);
+            if (child == null) {
+                node.addChild(distance, new Node(word));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    @Override
+    public List<String> suggest(String word) {
+        return suggest(word, maxDistance, limit);
+    }
+
+    // Не больше limit слов на расстоянии до maxDistance: сначала ближайшие, при равном расстоянии - по алфавиту
+    public List<String> suggest(String word, int maxDistance, int limit) {
+        List<Suggestion> found = new ArrayList<>();
+        search(word, maxDistance, found);
+        return Suggestion.ranked(found, limit);
+    }
+
+    // Обход с отсечением поддеревьев; возвращает число проверенных узлов
+    private int search(String word, int maxDistance, List<Suggestion> found) {
+        if (root == null) {
+            return 0;
+        }
+        int visited = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            visited++;
+            int distance = EditDistance.fullDamerauLevenshtein(word, node.word);
+            if (distance <= maxDistance && node.word.length() >= 2) {
+                found.add(new Suggestion(node.word, distance));
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                if (Math.abs(node.distances[i] - distance) <= maxDistance) {
+                    stack.push(node.children[i]);
+                }
+            }
+        }
+        return visited;
+    }
+
+    // Сколько узлов проверяет поиск слова (для оценки отсечения)
+    int nodesVisited(String word) {
+        return search(word, maxDistance, new ArrayList<>());
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,179 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.function.Consumer;
+
+// Блочный фильтр Блума перед словарём: большинство проверок отсутствующих слов
+// (почти все кандидаты при подборе исправлений) отсекается без обращения к
+// основной таблице. Ложных отрицаний нет: слово, которого нет в фильтре, нет и в словаре;
+// при положительном ответе фильтра слово проверяется по словарю.
+//
+// Все биты одного слова лежат в одном блоке из 512 бит (64 байта - одна кэш-линия),
+// поэтому проверка читает одну линию памяти вместо k случайных.
+// Фильтр строится по словам словаря при создании. Если изменяемый словарь после этого
+// изменился (DictionaryLookup.version), фильтр не используется, пока его не перестроят.
+public class BloomFilterDictionary implements DictionaryLookup {
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_LONGS = BLOCK_BITS / 64;
+    private static final int MAX_HASH_FUNCTIONS = 16;
+    // Позиции битов в блоке: старшие биты последовательности h * C, h * C^2, ...
+    private static final long BIT_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final DictionaryLookup dictionary;
+    private final long[] bits;
+    private final int blockCount;
+    private final int hashFunctions;
+    private final long builtVersion;
+
+    private BloomFilterDictionary(DictionaryLookup dictionary, double bitsPerWord) {
+        if (!(bitsPerWord > 0)) {
+            throw new IllegalArgumentException("Bits per word must be positive: " + bitsPerWord);
+        }
+        this.dictionary = dictionary;
+        this.builtVersion = dictionary.version();
+        long totalBits = (long) Math.ceil(Math.max(1, dictionary.size()) * bitsPerWord);
+        long blocks = (totalBits + BLOCK_BITS - 1) / BLOCK_BITS;
+        if (blocks * BLOCK_LONGS > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Bloom filter is too large: " + totalBits + " bits");
+        }
+        this.blockCount = (int) blocks;
+        this.bits = new long[blockCount * BLOCK_LONGS];
+        this.hashFunctions = bestHashFunctions(bitsPerWord);
+        dictionary.forEachWord(word -> add(word.hashCode()));
+    }
+
+    // Фильтр с заданной долей ложных срабатываний (например, 0.01)
+    public static BloomFilterDictionary withFalsePositiveRate(DictionaryLookup dictionary, double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        // Начинаем с оценки обычного фильтра m / n = -ln p / (ln 2)^2 и добавляем память,
+        // пока блочный фильтр не достигнет нужной доли
+        double bitsPerWord = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        while (falsePositiveRate(bitsPerWord, bestHashFunctions(bitsPerWord)) > falsePositiveRate) {
+            bitsPerWord += 0.25;
+        }
+        return new BloomFilterDictionary(dictionary, bitsPerWord);
+    }
+
+    // Фильтр с заданным объёмом памяти на слово (в битах)
+    public static BloomFilterDictionary withBitsPerWord(DictionaryLookup dictionary, double bitsPerWord) {
+        return new BloomFilterDictionary(dictionary, bitsPerWord);
+    }
+
+    // Число хеш-функций с наименьшей долей ложных срабатываний при данной памяти
+    private static int bestHashFunctions(double bitsPerWord) {
+        int best = 1;
+        for (int k = 2; k <= MAX_HASH_FUNCTIONS; k++) {
+            if (falsePositiveRate(bitsPerWord, k) < falsePositiveRate(bitsPerWord, best)) {
+                best = k;
+            }
+        }
+        return best;
+    }
+
+    // Ожидаемая доля ложных срабатываний блочного фильтра: число слов в блоке распределено
+    // по Пуассону со средним BLOCK_BITS / bitsPerWord, внутри блока - обычный фильтр Блума
+    static double falsePositiveRate(double bitsPerWord, int hashFunctions) {
+        double mean = BLOCK_BITS / bitsPerWord;
+        int maxWords = (int) (mean + 10 * Math.sqrt(mean) + 10);
+        double probability = Math.exp(-mean); // P(в блоке 0 слов)
+        double rate = 0;
+        for (int words = 0; words <= maxWords; words++) {
+            if (words > 0) {
+                probability *= mean / words;
+            }
+            double bitSet = 1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double) hashFunctions * words);
+            rate += probability * Math.pow(bitSet, hashFunctions);
+        }
+        return rate;
+    }
+
+    // 64-битное перемешивание хеша String.hashCode (финализатор MurmurHash3)
+    private static long mix(int hash) {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Первая ячейка блока: младшие 32 бита хеша, сведённые к числу блоков умножением
+    private int blockStart(long h) {
+        return (int) (((h & 0xFFFFFFFFL) * blockCount) >>> 32) * BLOCK_LONGS;
+    }
+
+    private void add(int hash) {
+        long h = mix(hash);
+        int block = blockStart(h);
+        for (int i = 0; i < hashFunctions; i++) {
+            h *= BIT_MULTIPLIER;
+            int bit = (int) (h >>> 55); // старшие 9 бит - номер бита в блоке
+            bits[block + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    // false - слова точно нет в словаре; true - слово, возможно, есть
+    boolean mightContain(int hash) {
+        long h = mix(hash);
+        int block = blockStart(h);
+        for (int i = 0; i < hashFunctions; i++) {
+            h *= BIT_MULTIPLIER;
+            int bit = (int) (h >>> 55);
+            if ((bits[block + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Фильтр действителен, пока словарь не изменился после построения
+    private boolean filterValid() {
+        return dictionary.version() == builtVersion;
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        if (filterValid() && !mightContain(CustomHashMap.hash(word))) {
+            return false;
+        }
+        return dictionary.contains(word);
+    }
+
+    @Override
+    public boolean contains(char[] chars, int offset, int length, int hash) {
+        if (filterValid() && !mightContain(hash)) {
+            return false;
+        }
+        return dictionary.contains(chars, offset, length, hash);
+    }
+
+    @Override
+    public int size() {
+        return dictionary.size();
+    }
+
+    @Override
+    public void forEachWord(Consumer<String> action) {
+        dictionary.forEachWord(action);
+    }
+
+    @Override
+    public long version() {
+        return dictionary.version();
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    // Расчётная доля ложных срабатываний при текущем размере фильтра
+    public double expectedFalsePositiveRate() {
+        return falsePositiveRate((double) bits.length * 64 / Math.max(1, dictionary.size()), hashFunctions);
+    }
+
+    public long sizeInBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+}
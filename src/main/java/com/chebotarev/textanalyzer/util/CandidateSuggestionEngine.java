@@ -0,0 +1,139 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Перебор всех правок на расстоянии 1 (замена, вставка, удаление, перестановка)
+// с проверкой каждого кандидата по словарю. Не требует подготовки, но делает
+// порядка 2 * 33 * длина обращений к словарю на слово.
+// Кандидаты собираются в одном буфере char[], хеш каждого кандидата (как у String.hashCode)
+// получается из хешей префиксов и суффиксов слова за O(1), строка создаётся
+// только для найденных в словаре. Замены и вставки берутся из алфавита письменности
+// слова: для кириллического слова не перебираются латинские буквы и наоборот.
+public class CandidateSuggestionEngine implements SuggestionEngine {
+    private static final char[] CYRILLIC_ALPHABET = "абвгдеёжзийклмнопрстуфхцчшщъыьэюя".toCharArray();
+    private static final char[] LATIN_ALPHABET = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final char[] ALPHABET = (new String(CYRILLIC_ALPHABET) + new String(LATIN_ALPHABET)).toCharArray();
+
+    private final DictionaryLookup dictionary;
+
+    public CandidateSuggestionEngine(DictionaryLookup dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public List<String> suggest(String word) {
+        Set<String> suggestions = new HashSet<>();
+        generateSuggestions(word, suggestions);
+        return new ArrayList<>(suggestions);
+    }
+
+    // Алфавит письменности слова; для смешанных слов и слов без букв - оба алфавита
+    static char[] alphabetFor(char[] word) {
+        boolean cyrillic = false;
+        boolean latin = false;
+        for (char c : word) {
+            if ((c >= 'а' && c <= 'я') || c == 'ё') {
+                cyrillic = true;
+            } else if (c >= 'a' && c <= 'z') {
+                latin = true;
+            }
+        }
+        if (cyrillic && !latin) {
+            return CYRILLIC_ALPHABET;
+        }
+        if (latin && !cyrillic) {
+            return LATIN_ALPHABET;
+        }
+        return ALPHABET;
+    }
+
+    private void generateSuggestions(String word, Set<String> suggestions) {
+        char[] source = word.toCharArray();
+        int length = source.length;
+        if (length == 0) {
+            return;
+        }
+        char[] alphabet = alphabetFor(source);
+        char[] candidate = new char[length + 1];
+
+        // power[k] = 31^k, prefix[i] - хеш source[0, i), suffix[i] - вклад source[i, length) в хеш слова
+        int[] power = new int[length + 2];
+        int[] prefix = new int[length + 1];
+        int[] suffix = new int[length + 1];
+        power[0] = 1;
+        for (int k = 1; k < power.length; k++) {
+            power[k] = power[k - 1] * 31;
+        }
+        for (int i = 0; i < length; i++) {
+            prefix[i + 1] = prefix[i] * 31 + source[i];
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            suffix[i] = source[i] * power[length - 1 - i] + suffix[i + 1];
+        }
+        int hash = prefix[length];
+
+        // 1. Замены: хеш меняется на (c - source[i]) * 31^(length - 1 - i)
+        System.arraycopy(source, 0, candidate, 0, length);
+        for (int i = 0; i < length; i++) {
+            int weight = power[length - 1 - i];
+            for (char c : alphabet) {
+                if (c == source[i]) {
+                    continue;
+                }
+                candidate[i] = c;
+                checkCandidate(candidate, length, hash + (c - source[i]) * weight, suggestions);
+            }
+            candidate[i] = source[i];
+        }
+
+        // 2. Вставки
+        System.arraycopy(source, 0, candidate, 1, length);
+        for (int i = 0; i <= length; i++) {
+            // candidate = source[0, i) + c + source[i, length)
+            if (i > 0) {
+                candidate[i - 1] = source[i - 1];
+            }
+            int base = prefix[i] * power[length - i + 1] + suffix[i];
+            int weight = power[length - i];
+            for (char c : alphabet) {
+                candidate[i] = c;
+                checkCandidate(candidate, length + 1, base + c * weight, suggestions);
+            }
+        }
+
+        // 3. Удаления
+        System.arraycopy(source, 1, candidate, 0, length - 1);
+        for (int i = 0; i < length; i++) {
+            // candidate = source[0, i) + source[i + 1, length)
+            if (i > 0) {
+                candidate[i - 1] = source[i - 1];
+            }
+            checkCandidate(candidate, length - 1, prefix[i] * power[length - 1 - i] + suffix[i + 1], suggestions);
+        }
+
+        // 4. Перестановка соседних символов
+        System.arraycopy(source, 0, candidate, 0, length);
+        for (int i = 0; i < length - 1; i++) {
+            char a = source[i];
+            char b = source[i + 1];
+            if (a == b) {
+                continue;
+            }
+            candidate[i] = b;
+            candidate[i + 1] = a;
+            int swapped = hash + (b - a) * power[length - 1 - i] + (a - b) * power[length - 2 - i];
+            checkCandidate(candidate, length, swapped, suggestions);
+            candidate[i] = a;
+            candidate[i + 1] = b;
+        }
+    }
+
+    private void checkCandidate(char[] candidate, int length, int hash, Set<String> suggestions) {
+        if (length >= 2 && dictionary.contains(candidate, 0, length, hash)) {
+            suggestions.add(new String(candidate, 0, length));
+        }
+    }
+}
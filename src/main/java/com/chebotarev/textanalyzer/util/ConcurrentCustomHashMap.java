@@ -0,0 +1,189 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Потокобезопасная хеш-таблица на основе CustomHashMap с разделёнными блокировками.
+// Ключи распределяются по независимым сегментам, у каждого своя блокировка,
+// поэтому потоки, обновляющие разные слова, почти не мешают друг другу.
+// merge/compute/increment выполняются атомарно внутри сегмента.
+public class ConcurrentCustomHashMap<K, V> {
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+
+    // Сегмент: обычная CustomHashMap под собственным монитором
+    private static final class Segment<K, V> {
+        final CustomHashMap<K, V> map = new CustomHashMap<>();
+    }
+
+    public ConcurrentCustomHashMap() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    // concurrencyLevel - ожидаемое число одновременно пишущих потоков
+    @SuppressWarnings("unchecked")
+    public ConcurrentCustomHashMap(int concurrencyLevel) {
+        if (concurrencyLevel < 1) {
+            throw new IllegalArgumentException("Concurrency level must be positive: " + concurrencyLevel);
+        }
+        int count = 2;
+        while (count < concurrencyLevel && count < (1 << 16)) {
+            count <<= 1;
+        }
+        segments = (Segment<K, V>[]) new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>();
+        }
+        segmentMask = count - 1;
+    }
+
+    // Сегмент выбирается по старшим битам перемешанного хеша,
+    // младшие биты остаются для индекса внутри CustomHashMap
+    private Segment<K, V> segmentFor(int hash) {
+        return segments[((hash * 0x9E3779B9) >>> 16) & segmentMask];
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        return segmentFor((key == null) ? 0 : key.hashCode());
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.map.get(key);
+        }
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.map.put(key, value);
+        }
+    }
+
+    // Добавляет значение, только если ключа нет; возвращает текущее значение или null
+    public V putIfAbsent(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            CustomHashMap.Entry<K, V> entry = segment.map.findEntry(key);
+            if (entry != null) {
+                return entry.value;
+            }
+            segment.map.put(key, value);
+            return null;
+        }
+    }
+
+    public V remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.map.remove(key);
+        }
+    }
+
+    // Как Map.merge: при отсутствии ключа записывается value, иначе function(старое, value);
+    // результат null удаляет ключ
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.map.merge(key, value, function);
+        }
+    }
+
+    // Как Map.compute: function(ключ, старое значение или null); результат null удаляет ключ
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.map.compute(key, function);
+        }
+    }
+
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.map.computeIfAbsent(key, function);
+        }
+    }
+
+    // ======================= СЧЁТЧИКИ =======================
+    // Только для карт со значениями Integer.
+
+    // Атомарно прибавляет delta (отсутствующий ключ считается равным 0), возвращает новое значение
+    @SuppressWarnings("unchecked")
+    public int addTo(K key, int delta) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            CustomHashMap.Entry<K, V> entry = segment.map.findEntry(key);
+            if (entry == null) {
+                segment.map.put(key, (V) Integer.valueOf(delta));
+                return delta;
+            }
+            int updated = (Integer) entry.value + delta;
+            entry.value = (V) Integer.valueOf(updated);
+            return updated;
+        }
+    }
+
+    public int increment(K key) {
+        return addTo(key, 1);
+    }
+
+    // Увеличение по фрагменту char[] с хешем String.hashCode(); только для ключей String.
+    // Строка-ключ создаётся лишь при первом добавлении слова.
+    @SuppressWarnings("unchecked")
+    public int increment(char[] chars, int offset, int length, int hash) {
+        Segment<K, V> segment = segmentFor(hash);
+        synchronized (segment) {
+            CustomHashMap.Entry<K, V> entry = segment.map.getEntry(chars, offset, length, hash);
+            if (entry == null) {
+                segment.map.put((K) new String(chars, offset, length), (V) Integer.valueOf(1));
+                return 1;
+            }
+            int updated = (Integer) entry.value + 1;
+            entry.value = (V) Integer.valueOf(updated);
+            return updated;
+        }
+    }
+
+    // ======================= ОБХОД =======================
+
+    // Размер на момент обхода сегментов (при параллельных изменениях - приблизительный)
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+            }
+        }
+    }
+
+    // Обход по сегментам; каждый сегмент блокируется на время своего обхода
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.map.forEach(action);
+            }
+        }
+    }
+
+    // Снимок содержимого в обычной CustomHashMap
+    public CustomHashMap<K, V> toCustomHashMap() {
+        CustomHashMap<K, V> copy = new CustomHashMap<>(size());
+        forEach(copy::put);
+        return copy;
+    }
+}
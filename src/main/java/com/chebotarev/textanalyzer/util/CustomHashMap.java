@@ -1,43 +1,125 @@
 package com.chebotarev.textanalyzer.util;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
-public class CustomHashMap<K, V> {
+// Хеш-таблица с методом цепочек.
+// Размер таблицы - степень двойки, индекс бакета - перемешанный хеш по маске.
+// Длинные цепочки (много ключей с одинаковым индексом) превращаются в
+// сбалансированное дерево (AVL), поэтому поиск остаётся O(log n) даже на
+// специально подобранных коллизиях.
+// Обход - forEach, iterator() и spliterator() (в том числе для параллельных потоков)
+// без копирования записей; entries() возвращает копию списка.
+public class CustomHashMap<K, V> implements Iterable<CustomHashMap.Entry<K, V>> {
     private static final int DEFAULT_CAPACITY = 16;
     private static final float LOAD_FACTOR = 0.75f;
 
+    // Цепочка длиннее TREEIFY_THRESHOLD становится деревом (если таблица не меньше MIN_TREEIFY_CAPACITY,
+    // иначе таблица просто увеличивается); при ресайзе дерево из UNTREEIFY_THRESHOLD узлов и меньше
+    // снова становится цепочкой
+    static final int TREEIFY_THRESHOLD = 8;
+    static final int UNTREEIFY_THRESHOLD = 6;
+    static final int MIN_TREEIFY_CAPACITY = 64;
+
     private Entry<K, V>[] buckets;
     private int size = 0;
     private int threshold;
+    private int treeSequence; // порядковые номера узлов деревьев для неразличимых ключей
+    private int modCount;     // число структурных изменений, для быстрого отказа итераторов
 
-    @SuppressWarnings("unchecked")
     public CustomHashMap() {
-        buckets = (Entry<K, V>[]) new Entry[DEFAULT_CAPACITY];
-        threshold = (int) (DEFAULT_CAPACITY * LOAD_FACTOR);
+        this(0);
+    }
+
+    // Таблица, вмещающая expectedSize ключей без ресайза
+    @SuppressWarnings("unchecked")
+    public CustomHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        int capacity = capacityFor(expectedSize);
+        buckets = (Entry<K, V>[]) new Entry[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Наименьшая степень двойки (не меньше DEFAULT_CAPACITY), вмещающая expectedSize ключей
+    private static int capacityFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
     }
 
     public static class Entry<K, V> {
         public K key;
         public V value;
         public Entry<K, V> next;
+        final int hash;
 
         public Entry(K key, V value) {
+            this(key, value, (key == null) ? 0 : key.hashCode());
+        }
+
+        Entry(K key, V value, int hash) {
             this.key = key;
             this.value = value;
+            this.hash = hash;
+        }
+    }
+
+    // Узел дерева бакета. Поле next в дереве не используется.
+    static final class TreeNode<K, V> extends Entry<K, V> {
+        TreeNode<K, V> left;
+        TreeNode<K, V> right;
+        int height = 1;
+        int sequence;
+
+        TreeNode(K key, V value, int hash, int sequence) {
+            super(key, value, hash);
+            this.sequence = sequence;
         }
     }
 
+    // Старшие биты хеша участвуют в индексе
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int indexFor(int hash, int capacity) {
+        return spread(hash) & (capacity - 1);
+    }
+
+    private static int hashOf(Object key) {
+        return (key == null) ? 0 : key.hashCode();
+    }
+
     public V get(K key) {
-        int index = getIndex(key, buckets.length);
-        Entry<K, V> current = buckets[index];
+        Entry<K, V> entry = findEntry(key);
+        return (entry == null) ? null : entry.value;
+    }
 
+    // Запись с ключом key или null (для обновления значения на месте)
+    Entry<K, V> findEntry(Object key) {
+        int hash = hashOf(key);
+        Entry<K, V> current = buckets[indexFor(hash, buckets.length)];
+        if (current instanceof TreeNode) {
+            return treeFind((TreeNode<K, V>) current, hash, key);
+        }
         while (current != null) {
-            if (key == null && current.key == null) {
-                return current.value;
-            }
-            if (key != null && key.equals(current.key)) {
-                return current.value;
+            if (current.hash == hash && Objects.equals(key, current.key)) {
+                return current;
             }
             current = current.next;
         }
@@ -45,65 +127,205 @@ public class CustomHashMap<K, V> {
     }
 
     public void put(K key, V value) {
+        Entry<K, V> existing = findOrAdd(key, value);
+        if (existing != null) {
+            // Обновление существующего значения
+            existing.value = value;
+        }
+    }
+
+    // Одна проба таблицы: возвращает существующую запись с ключом key
+    // или добавляет новую запись (key, value) и возвращает null
+    private Entry<K, V> findOrAdd(K key, V value) {
         // Проверяем необходимость ресайза перед добавлением
         if (size >= threshold) {
-            resize();
+            resize(buckets.length * 2);
         }
 
-        int index = getIndex(key, buckets.length);
-        Entry<K, V> newEntry = new Entry<>(key, value);
+        int hash = hashOf(key);
+        int index = indexFor(hash, buckets.length);
+        Entry<K, V> head = buckets[index];
 
         // Случай: пустой бакет
-        if (buckets[index] == null) {
-            buckets[index] = newEntry;
+        if (head == null) {
+            buckets[index] = new Entry<>(key, value, hash);
             size++;
-            return;
+            modCount++;
+            return null;
+        }
+
+        // Случай: бакет-дерево
+        if (head instanceof TreeNode) {
+            TreeNode<K, V> root = (TreeNode<K, V>) head;
+            TreeNode<K, V> existing = treeFind(root, hash, key);
+            if (existing != null) {
+                return existing;
+            }
+            buckets[index] = treeInsert(root, new TreeNode<>(key, value, hash, ++treeSequence));
+            size++;
+            modCount++;
+            return null;
         }
 
         // Поиск существующей записи или конца цепочки
-        Entry<K, V> current = buckets[index];
+        Entry<K, V> current = head;
         Entry<K, V> prev = null;
+        int length = 0;
 
         while (current != null) {
             // Проверка на совпадение ключа
-            if ((key == null && current.key == null) ||
-                    (key != null && key.equals(current.key))) {
-
-                // Обновление существующего значения
-                current.value = value;
-                return;
+            if (current.hash == hash && Objects.equals(key, current.key)) {
+                return current;
             }
             prev = current;
             current = current.next;
+            length++;
         }
 
         // Добавление новой записи в конец цепочки
-        prev.next = newEntry;
+        prev.next = new Entry<>(key, value, hash);
         size++;
+        modCount++;
+        if (length + 1 > TREEIFY_THRESHOLD) {
+            treeifyBucket(index);
+        }
+        return null;
+    }
+
+    // ======================= СОСТАВНЫЕ ОПЕРАЦИИ =======================
+    // Как в java.util.Map: результат null удаляет ключ.
+
+    // При отсутствии ключа записывает value, иначе function(старое, value). Одна проба для любого случая.
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+        Entry<K, V> existing = findOrAdd(key, value);
+        if (existing == null) {
+            return value;
+        }
+        V merged = function.apply(existing.value, value);
+        if (merged == null) {
+            remove(key);
+        } else {
+            existing.value = merged;
+        }
+        return merged;
+    }
+
+    // function(ключ, старое значение или null). Обновление существующего ключа - одна проба,
+    // вставка нового - вторая (значение неизвестно до вызова function).
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        Entry<K, V> existing = findEntry(key);
+        V computed = function.apply(key, (existing == null) ? null : existing.value);
+        if (existing == null) {
+            if (computed != null) {
+                findOrAdd(key, computed);
+            }
+        } else if (computed == null) {
+            remove(key);
+        } else {
+            existing.value = computed;
+        }
+        return computed;
+    }
+
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        Entry<K, V> existing = findEntry(key);
+        if (existing != null) {
+            return existing.value;
+        }
+        V computed = function.apply(key);
+        if (computed != null) {
+            findOrAdd(key, computed);
+        }
+        return computed;
+    }
+
+    // Копирует все записи other; таблица увеличивается заранее, один раз
+    public void putAll(CustomHashMap<? extends K, ? extends V> other) {
+        ensureCapacity(size + other.size());
+        other.forEach(this::put);
+    }
+
+    // Сливает other в эту карту: совпадающие ключи объединяются function(наше, их)
+    public void mergeAll(CustomHashMap<? extends K, ? extends V> other, BinaryOperator<V> function) {
+        ensureCapacity(size + other.size());
+        other.forEach((key, value) -> merge(key, value, function));
+    }
+
+    // Удаление записи, возвращает прежнее значение или null
+    public V remove(K key) {
+        int hash = hashOf(key);
+        int index = indexFor(hash, buckets.length);
+        Entry<K, V> current = buckets[index];
+
+        if (current instanceof TreeNode) {
+            TreeNode<K, V> root = (TreeNode<K, V>) current;
+            TreeNode<K, V> node = treeFind(root, hash, key);
+            if (node == null) {
+                return null;
+            }
+            buckets[index] = treeRemove(root, node);
+            size--;
+            modCount++;
+            return node.value;
+        }
+
+        Entry<K, V> prev = null;
+        while (current != null) {
+            if (current.hash == hash && Objects.equals(key, current.key)) {
+                if (prev == null) {
+                    buckets[index] = current.next;
+                } else {
+                    prev.next = current.next;
+                }
+                size--;
+                modCount++;
+                return current.value;
+            }
+            prev = current;
+            current = current.next;
+        }
+        return null;
     }
+
     public void clear() {
         for (int i = 0; i < buckets.length; i++) {
             buckets[i] = null;
         }
         size = 0;
+        modCount++;
     }
+
     public boolean isEmpty() {
         return size == 0;
     }
-    private void resize() {
-        int newCapacity = buckets.length * 2;
+
+    // Увеличивает таблицу за один ресайз так, чтобы она вмещала expectedSize ключей
+    public void ensureCapacity(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity > buckets.length) {
+            resize(capacity);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        int oldCapacity = buckets.length;
         @SuppressWarnings("unchecked")
         Entry<K, V>[] newBuckets = (Entry<K, V>[]) new Entry[newCapacity];
         threshold = (int) (newCapacity * LOAD_FACTOR);
+        modCount++;
 
-        // Перехеширование всех элементов
-        for (int i = 0; i < buckets.length; i++) {
+        // Бакет i распределяется по бакетам i + j * oldCapacity новой таблицы
+        for (int i = 0; i < oldCapacity; i++) {
             Entry<K, V> current = buckets[i];
+            if (current instanceof TreeNode) {
+                splitTree((TreeNode<K, V>) current, newBuckets);
+                continue;
+            }
             while (current != null) {
                 Entry<K, V> next = current.next;
 
                 // Вычисляем новый индекс
-                int newIndex = getIndex(current.key, newCapacity);
+                int newIndex = indexFor(current.hash, newCapacity);
 
                 // Вставляем в начало цепочки нового бакета
                 current.next = newBuckets[newIndex];
@@ -115,28 +337,514 @@ public class CustomHashMap<K, V> {
         buckets = newBuckets;
     }
 
-    private int getIndex(K key, int capacity) {
-        if (key == null) return 0;
-        return Math.abs(key.hashCode()) % capacity;
-    }
-
     public int size() {
         return size;
     }
 
+    // Счётчик структурных изменений: меняется при добавлении и удалении ключей
+    int modificationCount() {
+        return modCount;
+    }
+
     public int getCapacity() {
         return buckets.length;
     }
 
+    // Копия всех записей в новом списке; для простого обхода достаточно forEach или for-each
     public List<Entry<K, V>> entries() {
-        List<Entry<K, V>> allEntries = new ArrayList<>();
+        List<Entry<K, V>> allEntries = new ArrayList<>(size);
         for (Entry<K, V> bucket : buckets) {
-            Entry<K, V> current = bucket;
-            while (current != null) {
-                allEntries.add(current);
-                current = current.next;
-            }
+            visit(bucket, allEntries::add);
         }
         return allEntries;
     }
-}
\ No newline at end of file
+
+    // ======================= ОБХОД БЕЗ КОПИРОВАНИЯ =======================
+
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        int expectedModCount = modCount;
+        Consumer<Entry<K, V>> entryAction = entry -> action.accept(entry.key, entry.value);
+        for (Entry<K, V> bucket : buckets) {
+            visit(bucket, entryAction);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+    }
+
+    // Делится по диапазонам бакетов: StreamSupport.stream(map.spliterator(), true)
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+        return new EntrySpliterator(0, buckets.length, size);
+    }
+
+    private static <K, V> void visit(Entry<K, V> bucket, Consumer<? super Entry<K, V>> action) {
+        if (bucket instanceof TreeNode) {
+            visitTree((TreeNode<K, V>) bucket, action);
+            return;
+        }
+        for (Entry<K, V> current = bucket; current != null; current = current.next) {
+            action.accept(current);
+        }
+    }
+
+    private static <K, V> void visitTree(TreeNode<K, V> node, Consumer<? super Entry<K, V>> action) {
+        if (node != null) {
+            visitTree(node.left, action);
+            action.accept(node);
+            visitTree(node.right, action);
+        }
+    }
+
+    // Позиция обхода в диапазоне бакетов [index, fence)
+    private class Cursor {
+        final Entry<K, V>[] table = buckets;
+        int index;
+        int fence;
+        int expectedModCount = modCount;
+        private Entry<K, V> current;         // последняя выданная запись цепочки
+        private List<Entry<K, V>> tree;      // узлы текущего бакета-дерева по порядку
+        private int treePosition;
+
+        Cursor(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        // Следующая запись или null, если диапазон пройден
+        Entry<K, V> nextEntry() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (tree != null) {
+                if (treePosition < tree.size()) {
+                    return tree.get(treePosition++);
+                }
+                tree = null;
+            } else if (current != null && current.next != null) {
+                return current = current.next;
+            }
+            while (index < fence) {
+                Entry<K, V> bucket = table[index++];
+                if (bucket instanceof TreeNode) {
+                    current = null;
+                    tree = new ArrayList<>();
+                    collect((TreeNode<K, V>) bucket, tree);
+                    treePosition = 1;
+                    return tree.get(0);
+                }
+                if (bucket != null) {
+                    return current = bucket;
+                }
+            }
+            current = null;
+            return null;
+        }
+    }
+
+    private final class EntryIterator extends Cursor implements Iterator<Entry<K, V>> {
+        private Entry<K, V> next;
+        private Entry<K, V> last;
+
+        EntryIterator() {
+            super(0, buckets.length);
+            next = nextEntry();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = nextEntry();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            CustomHashMap.this.remove(last.key);
+            expectedModCount = modCount;
+            last = null;
+        }
+    }
+
+    private final class EntrySpliterator extends Cursor implements Spliterator<Entry<K, V>> {
+        private long estimate;
+
+        EntrySpliterator(int index, int fence, long estimate) {
+            super(index, fence);
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+            Entry<K, V> entry = nextEntry();
+            if (entry == null) {
+                return false;
+            }
+            action.accept(entry);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Entry<K, V>> action) {
+            for (Entry<K, V> entry = nextEntry(); entry != null; entry = nextEntry()) {
+                action.accept(entry);
+            }
+        }
+
+        // Отдаёт первую половину оставшихся бакетов
+        @Override
+        public Spliterator<Entry<K, V>> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+            EntrySpliterator prefix = new EntrySpliterator(index, mid, estimate >>>= 1);
+            prefix.expectedModCount = expectedModCount;
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
+
+    // ======================= ДЕРЕВЬЯ В БАКЕТАХ =======================
+    // Порядок узлов: хеш, затем null раньше остальных, затем имя класса ключа,
+    // затем compareTo для Comparable-ключей одного класса, затем порядковый номер узла.
+    // Для строковых ключей порядок полностью определяется хешем и compareTo.
+
+    // Сравнение без учёта порядкового номера; 0 - ключи неразличимы по порядку
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(int hash1, Object key1, int hash2, Object key2) {
+        if (hash1 != hash2) {
+            return (hash1 < hash2) ? -1 : 1;
+        }
+        if (key1 == null || key2 == null) {
+            return (key1 == null ? 0 : 1) - (key2 == null ? 0 : 1);
+        }
+        Class<?> class1 = key1.getClass();
+        Class<?> class2 = key2.getClass();
+        if (class1 != class2) {
+            return class1.getName().compareTo(class2.getName());
+        }
+        if (key1 instanceof Comparable) {
+            return ((Comparable) key1).compareTo(key2);
+        }
+        return 0;
+    }
+
+    private static int compareNodes(TreeNode<?, ?> a, TreeNode<?, ?> b) {
+        int c = compareKeys(a.hash, a.key, b.hash, b.key);
+        return (c != 0) ? c : Integer.compare(a.sequence, b.sequence);
+    }
+
+    private TreeNode<K, V> treeFind(TreeNode<K, V> node, int hash, Object key) {
+        while (node != null) {
+            if (node.hash == hash && Objects.equals(key, node.key)) {
+                return node;
+            }
+            int c = compareKeys(hash, key, node.hash, node.key);
+            if (c < 0) {
+                node = node.left;
+            } else if (c > 0) {
+                node = node.right;
+            } else {
+                // Порядок не различает ключи - ищем в обоих поддеревьях
+                TreeNode<K, V> found = treeFind(node.right, hash, key);
+                if (found != null) {
+                    return found;
+                }
+                node = node.left;
+            }
+        }
+        return null;
+    }
+
+    private static int height(TreeNode<?, ?> node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+    private static <K, V> TreeNode<K, V> update(TreeNode<K, V> node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        return node;
+    }
+
+    private static <K, V> TreeNode<K, V> rotateRight(TreeNode<K, V> node) {
+        TreeNode<K, V> left = node.left;
+        node.left = left.right;
+        left.right = update(node);
+        return update(left);
+    }
+
+    private static <K, V> TreeNode<K, V> rotateLeft(TreeNode<K, V> node) {
+        TreeNode<K, V> right = node.right;
+        node.right = right.left;
+        right.left = update(node);
+        return update(right);
+    }
+
+    private static <K, V> TreeNode<K, V> balance(TreeNode<K, V> node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static <K, V> TreeNode<K, V> treeInsert(TreeNode<K, V> root, TreeNode<K, V> node) {
+        if (root == null) {
+            return node;
+        }
+        if (compareNodes(node, root) < 0) {
+            root.left = treeInsert(root.left, node);
+        } else {
+            root.right = treeInsert(root.right, node);
+        }
+        return balance(root);
+    }
+
+    // Удаляет именно этот узел (по полному порядку с номером узла)
+    private static <K, V> TreeNode<K, V> treeRemove(TreeNode<K, V> root, TreeNode<K, V> node) {
+        if (root == node) {
+            if (root.left == null) {
+                return root.right;
+            }
+            if (root.right == null) {
+                return root.left;
+            }
+            // Узел заменяется наименьшим узлом правого поддерева
+            TreeNode<K, V> successor = root.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(root.right);
+            successor.left = root.left;
+            return balance(successor);
+        }
+        if (compareNodes(node, root) < 0) {
+            root.left = treeRemove(root.left, node);
+        } else {
+            root.right = treeRemove(root.right, node);
+        }
+        return balance(root);
+    }
+
+    private static <K, V> TreeNode<K, V> removeMin(TreeNode<K, V> root) {
+        if (root.left == null) {
+            return root.right;
+        }
+        root.left = removeMin(root.left);
+        return balance(root);
+    }
+
+    private static <K, V> void collect(TreeNode<K, V> node, List<? super TreeNode<K, V>> out) {
+        if (node != null) {
+            collect(node.left, out);
+            out.add(node);
+            collect(node.right, out);
+        }
+    }
+
+    // Сбалансированное дерево из узлов, упорядоченных по compareNodes
+    private static <K, V> TreeNode<K, V> build(List<TreeNode<K, V>> nodes, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        TreeNode<K, V> node = nodes.get(mid);
+        node.left = build(nodes, from, mid);
+        node.right = build(nodes, mid + 1, to);
+        return update(node);
+    }
+
+    private void treeifyBucket(int index) {
+        if (buckets.length < MIN_TREEIFY_CAPACITY) {
+            // В маленькой таблице длинная цепочка скорее говорит о нехватке места
+            resize(buckets.length * 2);
+            return;
+        }
+        List<TreeNode<K, V>> nodes = new ArrayList<>();
+        for (Entry<K, V> current = buckets[index]; current != null; current = current.next) {
+            nodes.add(new TreeNode<>(current.key, current.value, current.hash, ++treeSequence));
+        }
+        nodes.sort(CustomHashMap::compareNodes);
+        buckets[index] = build(nodes, 0, nodes.size());
+    }
+
+    private static <K, V> Entry<K, V> placeNodes(List<TreeNode<K, V>> nodes) {
+        if (nodes.size() > UNTREEIFY_THRESHOLD) {
+            return build(nodes, 0, nodes.size());
+        }
+        Entry<K, V> head = null;
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            TreeNode<K, V> node = nodes.get(i);
+            Entry<K, V> entry = new Entry<>(node.key, node.value, node.hash);
+            entry.next = head;
+            head = entry;
+        }
+        return head;
+    }
+
+    private void splitTree(TreeNode<K, V> root, Entry<K, V>[] newBuckets) {
+        List<TreeNode<K, V>> nodes = new ArrayList<>();
+        collect(root, nodes);
+        // Устойчивая сортировка по новому индексу сохраняет порядок узлов внутри каждого бакета
+        int capacity = newBuckets.length;
+        nodes.sort(Comparator.comparingInt(node -> indexFor(node.hash, capacity)));
+        int from = 0;
+        while (from < nodes.size()) {
+            int index = indexFor(nodes.get(from).hash, capacity);
+            int to = from + 1;
+            while (to < nodes.size() && indexFor(nodes.get(to).hash, capacity) == index) {
+                to++;
+            }
+            newBuckets[index] = placeNodes(nodes.subList(from, to));
+            from = to;
+        }
+    }
+
+    // ======================= ПОИСК БЕЗ СОЗДАНИЯ СТРОКИ =======================
+    // Для карт с ключами String: искомое слово передаётся фрагментом char[] или
+    // CharSequence вместе с заранее посчитанным хешем (см. hash()).
+
+    // Хеш фрагмента, совпадает с String.hashCode() для той же строки
+    public static int hash(char[] chars, int offset, int length) {
+        int h = 0;
+        for (int i = offset, n = offset + length; i < n; i++) {
+            h = 31 * h + chars[i];
+        }
+        return h;
+    }
+
+    public static int hash(CharSequence chars) {
+        int h = 0;
+        for (int i = 0, n = chars.length(); i < n; i++) {
+            h = 31 * h + chars.charAt(i);
+        }
+        return h;
+    }
+
+    public Entry<K, V> getEntry(char[] chars, int offset, int length, int hash) {
+        Entry<K, V> current = buckets[indexFor(hash, buckets.length)];
+        if (current instanceof TreeNode) {
+            return treeFind((TreeNode<K, V>) current, hash, chars, offset, length, null);
+        }
+        while (current != null) {
+            if (current.hash == hash && current.key instanceof String
+                    && compare((String) current.key, chars, offset, length) == 0) {
+                return current;
+            }
+            current = current.next;
+        }
+        return null;
+    }
+
+    public V get(char[] chars, int offset, int length, int hash) {
+        Entry<K, V> entry = getEntry(chars, offset, length, hash);
+        return (entry == null) ? null : entry.value;
+    }
+
+    public Entry<K, V> getEntry(CharSequence chars, int hash) {
+        Entry<K, V> current = buckets[indexFor(hash, buckets.length)];
+        if (current instanceof TreeNode) {
+            return treeFind((TreeNode<K, V>) current, hash, null, 0, chars.length(), chars);
+        }
+        while (current != null) {
+            if (current.hash == hash && current.key instanceof String
+                    && ((String) current.key).contentEquals(chars)) {
+                return current;
+            }
+            current = current.next;
+        }
+        return null;
+    }
+
+    public V get(CharSequence chars, int hash) {
+        Entry<K, V> entry = getEntry(chars, hash);
+        return (entry == null) ? null : entry.value;
+    }
+
+    // Поиск строки в дереве по фрагменту chars[offset, offset + length) либо по sequence
+    private TreeNode<K, V> treeFind(TreeNode<K, V> node, int hash,
+                                    char[] chars, int offset, int length, CharSequence sequence) {
+        while (node != null) {
+            int c;
+            if (hash != node.hash) {
+                c = (hash < node.hash) ? -1 : 1;
+            } else if (node.key == null) {
+                c = 1;
+            } else if (node.key instanceof String) {
+                String key = (String) node.key;
+                c = (sequence == null) ? -compare(key, chars, offset, length) : -compare(key, sequence);
+                if (c == 0) {
+                    return node;
+                }
+            } else {
+                c = String.class.getName().compareTo(node.key.getClass().getName());
+            }
+            node = (c < 0) ? node.left : node.right;
+        }
+        return null;
+    }
+
+    // Сравнение как String.compareTo(key, фрагмент)
+    private static int compare(String key, char[] chars, int offset, int length) {
+        int n = Math.min(key.length(), length);
+        for (int i = 0; i < n; i++) {
+            char a = key.charAt(i);
+            char b = chars[offset + i];
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return key.length() - length;
+    }
+
+    private static int compare(String key, CharSequence chars) {
+        int n = Math.min(key.length(), chars.length());
+        for (int i = 0; i < n; i++) {
+            char a = key.charAt(i);
+            char b = chars.charAt(i);
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return key.length() - chars.length();
+    }
+}
@@ -0,0 +1,562 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Словарь в виде минимального ациклического автомата (DAWG): общие префиксы и
+// общие окончания слов хранятся один раз, что особенно выгодно для словоформ.
+// Автомат строится алгоритмом Дацюка (инкрементально по отсортированным словам)
+// и хранится как плоский массив дуг в ByteBuffer - на куче после построения
+// или отображённым в память из файла (map). Словарь только читается и потокобезопасен.
+//
+// Формат (big-endian):
+//   заголовок: MAGIC, VERSION, число слов, число дуг, начало корня (по 4 байта);
+//   дуги: int[число дуг] - адрес первой дуги цели | FINAL | LAST, затем char[число дуг] - метки.
+// Дуги одного состояния идут подряд по возрастанию меток, последняя помечена LAST.
+public class DawgDictionary implements DictionaryLookup {
+    public static final String EXTENSION = ".dawg";
+
+    private static final int MAGIC = 0x44415747; // "DAWG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+
+    private static final int LAST = 1 << 31;          // последняя дуга состояния
+    private static final int FINAL = 1 << 30;         // слово может закончиться после этой дуги
+    private static final int TARGET_MASK = FINAL - 1;
+    private static final int NO_ARCS = TARGET_MASK;   // у цели нет исходящих дуг
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int arcCount;
+    private final int root;
+    private final int labelsOffset;
+
+    private DawgDictionary(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a DAWG dictionary");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported DAWG version: " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        this.arcCount = buffer.getInt(12);
+        this.root = buffer.getInt(16);
+        if (size < 0 || arcCount < 0 || arcCount >= NO_ARCS
+                || buffer.capacity() != HEADER_BYTES + arcCount * 6L) {
+            throw new IOException("Truncated DAWG dictionary: " + buffer.capacity() + " bytes");
+        }
+        this.labelsOffset = HEADER_BYTES + arcCount * 4;
+        validateArcs();
+    }
+
+    // Проверка ссылок один раз при загрузке: после неё обход не выходит за границы буфера.
+    // Каждая цель - начало дуг внутри массива или NO_ARCS, а последняя дуга массива помечена LAST,
+    // поэтому дуги любого состояния заканчиваются внутри массива.
+    private void validateArcs() throws IOException {
+        if (root != NO_ARCS && (root < 0 || root >= arcCount)) {
+            throw new IOException("Corrupt DAWG dictionary: root " + root + " outside " + arcCount + " arcs");
+        }
+        if (arcCount > 0 && (arc(arcCount - 1) & LAST) == 0) {
+            throw new IOException("Corrupt DAWG dictionary: last arc is not terminated");
+        }
+        for (int i = 0; i < arcCount; i++) {
+            int target = arc(i) & TARGET_MASK;
+            if (target != NO_ARCS && target >= arcCount) {
+                throw new IOException("Corrupt DAWG dictionary: arc " + i + " points to " + target);
+            }
+        }
+        checkAcyclic();
+    }
+
+    // Автомат должен быть ациклическим, иначе обход слов не завершится.
+    // Обход в глубину без рекурсии: 1 - состояние на текущем пути, 2 - полностью проверено.
+    private void checkAcyclic() throws IOException {
+        if (root == NO_ARCS) {
+            return;
+        }
+        byte[] color = new byte[arcCount];
+        int[] stack = new int[64]; // текущая дуга каждого состояния на пути
+        int[] starts = new int[64];
+        int depth = 0;
+        stack[0] = root;
+        starts[0] = root;
+        color[root] = 1;
+        while (depth >= 0) {
+            int i = stack[depth];
+            int value = arc(i);
+            int target = value & TARGET_MASK;
+            if ((value & LAST) != 0) {
+                stack[depth] = -1; // дуги состояния закончились после этой
+            } else {
+                stack[depth] = i + 1;
+            }
+            if (target != NO_ARCS) {
+                if (color[target] == 1) {
+                    throw new IOException("Corrupt DAWG dictionary: cycle at arc " + target);
+                }
+                if (color[target] == 0) {
+                    color[target] = 1;
+                    if (++depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                        starts = Arrays.copyOf(starts, depth * 2);
+                    }
+                    stack[depth] = target;
+                    starts[depth] = target;
+                    continue;
+                }
+            }
+            while (depth >= 0 && stack[depth] == -1) {
+                color[starts[depth]] = 2;
+                depth--;
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Заполнение словаря; слова можно добавлять в любом порядке, после build() добавлять нельзя
+    public static class Builder {
+        private List<String> words = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        // Добавляет нормализованное слово; повторы и пустые строки пропускаются
+        public Builder add(String word) {
+            if (words == null) {
+                throw new IllegalStateException("Dictionary is already built");
+            }
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+            return this;
+        }
+
+        public DawgDictionary build() {
+            if (words == null) {
+                throw new IllegalStateException("Dictionary is already built");
+            }
+            List<String> sorted = words;
+            words = null;
+            Collections.sort(sorted);
+            Minimizer minimizer = new Minimizer();
+            String previous = null;
+            for (String word : sorted) {
+                if (!word.equals(previous)) {
+                    minimizer.add(word);
+                    previous = word;
+                }
+            }
+            try {
+                return new DawgDictionary(minimizer.finish());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    public static DawgDictionary of(Iterable<String> words) {
+        Builder builder = builder();
+        for (String word : words) {
+            builder.add(word.trim().toLowerCase());
+        }
+        return builder.build();
+    }
+
+    // Построение по текстовому словарю (одно слово в строке)
+    public static DawgDictionary load(Path path) throws IOException {
+        Builder builder = builder();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                builder.add(line.trim().toLowerCase());
+            }
+        }
+        return builder.build();
+    }
+
+    // Отображение сохранённого автомата в память: данные читаются с диска по мере обращения
+    public static DawgDictionary map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new DawgDictionary(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Автомат по умолчанию лежит рядом с текстовым словарём: words.txt -> words.txt.dawg
+    public static Path defaultPath(Path text) {
+        return text.resolveSibling(text.getFileName() + EXTENSION);
+    }
+
+    // Файл заменяется целиком (как в DictionarySnapshot), поэтому отображающий его читатель
+    // не увидит автомат, записанный наполовину
+    public void write(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer data = buffer.duplicate();
+                data.clear();
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                channel.force(false);
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // ======================= ПОСТРОЕНИЕ =======================
+
+    // Состояние строящегося автомата. Зарегистрированные состояния не меняются,
+    // поэтому равенство по содержимому (метки, финальность, тождество целей) безопасно.
+    private static final class State {
+        char[] labels = new char[2];
+        State[] targets = new State[2];
+        int count;
+        boolean terminal;
+        int address = -1;
+
+        void add(char label, State target) {
+            if (count == labels.length) {
+                labels = Arrays.copyOf(labels, count * 2);
+                targets = Arrays.copyOf(targets, count * 2);
+            }
+            labels[count] = label;
+            targets[count] = target;
+            count++;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) {
+                return false;
+            }
+            State other = (State) o;
+            if (terminal != other.terminal || count != other.count) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (labels[i] != other.labels[i] || targets[i] != other.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = terminal ? 1 : 0;
+            for (int i = 0; i < count; i++) {
+                h = 31 * h + labels[i];
+                h = 31 * h + System.identityHashCode(targets[i]);
+            }
+            return h;
+        }
+    }
+
+    // Алгоритм Дацюка: после каждого слова состояния, которые уже не изменятся
+    // (хвост предыдущего слова после общего префикса), заменяются эквивалентными
+    // из реестра или сами добавляются в реестр.
+    private static final class Minimizer {
+        private final State root = new State();
+        private final CustomHashMap<State, State> register = new CustomHashMap<>();
+        private final List<State> path = new ArrayList<>(); // состояния последнего слова, path[i] - после i+1 символов
+        private String previous = "";
+        private int words;
+
+        void add(String word) {
+            int common = 0;
+            int limit = Math.min(word.length(), previous.length());
+            while (common < limit && word.charAt(common) == previous.charAt(common)) {
+                common++;
+            }
+            minimize(common);
+            State state = common == 0 ? root : path.get(common - 1);
+            for (int i = common; i < word.length(); i++) {
+                State next = new State();
+                state.add(word.charAt(i), next);
+                path.add(next);
+                state = next;
+            }
+            state.terminal = true;
+            previous = word;
+            words++;
+        }
+
+        // Минимизирует состояния пути глубже downTo символов
+        private void minimize(int downTo) {
+            for (int i = path.size() - 1; i >= downTo; i--) {
+                State child = path.remove(i);
+                State parent = i == 0 ? root : path.get(i - 1);
+                State existing = register.get(child);
+                if (existing != null) {
+                    parent.targets[parent.count - 1] = existing;
+                } else {
+                    register.put(child, child);
+                }
+            }
+        }
+
+        ByteBuffer finish() {
+            minimize(0);
+
+            // Адреса состояний: дуги каждого состояния - непрерывный блок, обход в ширину
+            List<State> order = new ArrayList<>();
+            Deque<State> queue = new ArrayDeque<>();
+            int arcs = 0;
+            root.address = 0;
+            arcs += root.count;
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                State state = queue.poll();
+                order.add(state);
+                for (int i = 0; i < state.count; i++) {
+                    State target = state.targets[i];
+                    if (target.address < 0 && target.count > 0) {
+                        target.address = arcs;
+                        arcs += target.count;
+                        queue.add(target);
+                    }
+                }
+            }
+            if (arcs >= NO_ARCS || HEADER_BYTES + arcs * 6L > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("DAWG is too large: " + arcs + " arcs");
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + arcs * 6);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, words);
+            buffer.putInt(12, arcs);
+            buffer.putInt(16, root.count > 0 ? 0 : NO_ARCS);
+            int labels = HEADER_BYTES + arcs * 4;
+            for (State state : order) {
+                for (int i = 0; i < state.count; i++) {
+                    State target = state.targets[i];
+                    int arc = state.address + i;
+                    int value = target.count > 0 ? target.address : NO_ARCS;
+                    if (target.terminal) {
+                        value |= FINAL;
+                    }
+                    if (i == state.count - 1) {
+                        value |= LAST;
+                    }
+                    buffer.putInt(HEADER_BYTES + arc * 4, value);
+                    buffer.putChar(labels + arc * 2, state.labels[i]);
+                }
+            }
+            return buffer;
+        }
+    }
+
+    // ======================= ПОИСК =======================
+
+    private int arc(int index) {
+        return buffer.getInt(HEADER_BYTES + index * 4);
+    }
+
+    private char label(int index) {
+        return buffer.getChar(labelsOffset + index * 2);
+    }
+
+    // Дуга состояния state с меткой c или -1
+    private int findArc(int state, char c) {
+        if (state == NO_ARCS) {
+            return -1;
+        }
+        for (int i = state; ; i++) {
+            char label = label(i);
+            if (label == c) {
+                return i;
+            }
+            // Метки отсортированы: дальше искать бессмысленно
+            if (label > c || (arc(i) & LAST) != 0) {
+                return -1;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        int length = word.length();
+        if (length == 0) {
+            return false;
+        }
+        int state = root;
+        for (int i = 0; ; i++) {
+            int arc = findArc(state, word.charAt(i));
+            if (arc < 0) {
+                return false;
+            }
+            int value = arc(arc);
+            if (i == length - 1) {
+                return (value & FINAL) != 0;
+            }
+            state = value & TARGET_MASK;
+        }
+    }
+
+    @Override
+    public boolean contains(char[] chars, int offset, int length, int hash) {
+        if (length == 0) {
+            return false;
+        }
+        int state = root;
+        for (int i = 0; ; i++) {
+            int arc = findArc(state, chars[offset + i]);
+            if (arc < 0) {
+                return false;
+            }
+            int value = arc(arc);
+            if (i == length - 1) {
+                return (value & FINAL) != 0;
+            }
+            state = value & TARGET_MASK;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Слова в алфавитном порядке
+    @Override
+    public void forEachWord(Consumer<String> action) {
+        forEachWord(root, new StringBuilder(), action);
+    }
+
+    private void forEachWord(int state, StringBuilder prefix, Consumer<String> action) {
+        if (state == NO_ARCS) {
+            return;
+        }
+        for (int i = state; ; i++) {
+            int value = arc(i);
+            prefix.append(label(i));
+            if ((value & FINAL) != 0) {
+                action.accept(prefix.toString());
+            }
+            forEachWord(value & TARGET_MASK, prefix, action);
+            prefix.setLength(prefix.length() - 1);
+            if ((value & LAST) != 0) {
+                return;
+            }
+        }
+    }
+
+    // Число дуг и объём данных автомата в байтах
+    public int arcCount() {
+        return arcCount;
+    }
+
+    public int sizeInBytes() {
+        return buffer.capacity();
+    }
+
+    // ======================= ПРЕДЛОЖЕНИЯ =======================
+
+    // Подбор исправлений обходом автомата (аналог автомата Левенштейна): для каждого
+    // префикса считается строка матрицы расстояния Дамерау-Левенштейна (вариант
+    // с ограниченной перестановкой, как в SymSpellEngine); ветви, где вся строка больше
+    // maxDistance, отсекаются. Общие префиксы слов считаются один раз.
+    public SuggestionEngine suggestionEngine(int maxDistance, int limit) {
+        if (maxDistance < 1) {
+            throw new IllegalArgumentException("Max distance must be positive: " + maxDistance);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        return word -> suggest(word, maxDistance, limit);
+    }
+
+    // Не больше limit слов на расстоянии до maxDistance: сначала ближайшие, при равном расстоянии - по алфавиту
+    public List<String> suggest(String word, int maxDistance, int limit) {
+        Traversal traversal = new Traversal(word, maxDistance);
+        int[] first = traversal.rows[0];
+        for (int j = 0; j < first.length; j++) {
+            first[j] = j;
+        }
+        traversal.walk(root, 1);
+
+        return Suggestion.ranked(traversal.found, limit);
+    }
+
+    private final class Traversal {
+        final String word;
+        final int maxDistance;
+        final int[][] rows;   // rows[d] - строка матрицы для префикса длины d
+        final char[] path;
+        final List<Suggestion> found = new ArrayList<>();
+
+        Traversal(String word, int maxDistance) {
+            this.word = word;
+            this.maxDistance = maxDistance;
+            // Слова длиннее word.length() + maxDistance не подходят: строка матрицы целиком больше порога
+            int depth = word.length() + maxDistance + 1;
+            this.rows = new int[depth + 1][word.length() + 1];
+            this.path = new char[depth];
+        }
+
+        void walk(int state, int depth) {
+            if (state == NO_ARCS || depth >= rows.length) {
+                return;
+            }
+            int n = word.length();
+            int[] previous = rows[depth - 1];
+            int[] current = rows[depth];
+            for (int i = state; ; i++) {
+                int value = arc(i);
+                char c = label(i);
+                path[depth - 1] = c;
+
+                current[0] = depth;
+                int rowMin = depth;
+                for (int j = 1; j <= n; j++) {
+                    char wc = word.charAt(j - 1);
+                    int cost = (c == wc) ? 0 : 1;
+                    int d = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                    if (depth > 1 && j > 1 && c == word.charAt(j - 2) && path[depth - 2] == wc) {
+                        d = Math.min(d, rows[depth - 2][j - 2] + 1);
+                    }
+                    current[j] = d;
+                    rowMin = Math.min(rowMin, d);
+                }
+
+                if ((value & FINAL) != 0 && current[n] <= maxDistance && depth >= 2) {
+                    found.add(new Suggestion(new String(path, 0, depth), current[n]));
+                }
+                if (rowMin <= maxDistance) {
+                    walk(value & TARGET_MASK, depth + 1);
+                }
+                if ((value & LAST) != 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Словарь только для чтения: проверка наличия слова.
+ * Слова передаются уже нормализованными (нижний регистр), хеш фрагмента -
+ * как у String.hashCode() (см. CustomHashMap.hash).
+ */
+public interface DictionaryLookup {
+
+    boolean contains(CharSequence word);
+
+    boolean contains(char[] chars, int offset, int length, int hash);
+
+    int size();
+
+    // Перебор всех слов словаря (для построения вспомогательных индексов)
+    void forEachWord(Consumer<String> action);
+
+    // Версия содержимого: меняется при каждом изменении набора слов.
+    // Неизменяемые словари всегда возвращают 0. Используется для сброса кэшей.
+    default long version() {
+        return 0;
+    }
+
+    // Живое представление CustomHashMap: изменения карты сразу видны через словарь
+    static DictionaryLookup of(CustomHashMap<String, ?> map) {
+        return new DictionaryLookup() {
+            @Override
+            public boolean contains(CharSequence word) {
+                return map.get(word, CustomHashMap.hash(word)) != null;
+            }
+
+            @Override
+            public boolean contains(char[] chars, int offset, int length, int hash) {
+                return map.get(chars, offset, length, hash) != null;
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+
+            @Override
+            public void forEachWord(Consumer<String> action) {
+                map.forEach((word, value) -> action.accept(word));
+            }
+
+            @Override
+            public long version() {
+                return map.modificationCount();
+            }
+        };
+    }
+}
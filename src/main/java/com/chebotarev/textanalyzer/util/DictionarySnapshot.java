@@ -0,0 +1,179 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// Двоичный снимок словаря: готовая хеш-таблица и арена OffHeapDictionary, записанные
+// байт в байт. Загрузка снимка - отображение файла в память и проверка контрольной суммы,
+// без чтения строк, нормализации и вставки слов.
+//
+// Снимок привязан к текстовому словарю, из которого собран: если размер или время
+// изменения текстового файла другие, снимок считается устаревшим и load() читает текст.
+//
+// Формат (big-endian):
+//   заголовок (48 байт): MAGIC, VERSION, число слов, байты таблицы, байты арены, резерв (по 4 байта),
+//   размер и время изменения исходного файла (по 8 байт), CRC32C, резерв (по 4 байта);
+//   затем таблица ячеек и арена OffHeapDictionary.
+// CRC32C считается по первым 40 байтам заголовка и всему содержимому после заголовка.
+public final class DictionarySnapshot {
+    public static final String EXTENSION = ".snapshot";
+
+    private static final int MAGIC = 0x54414453; // "TADS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 48;
+    private static final int CHECKED_HEADER_BYTES = 40;
+    private static final int CRC_OFFSET = 40;
+
+    private DictionarySnapshot() {
+    }
+
+    // Результат загрузки: словарь и откуда он взят
+    public static final class Loaded {
+        private final OffHeapDictionary dictionary;
+        private final boolean fromSnapshot;
+        private final String fallbackReason;
+
+        private Loaded(OffHeapDictionary dictionary, boolean fromSnapshot, String fallbackReason) {
+            this.dictionary = dictionary;
+            this.fromSnapshot = fromSnapshot;
+            this.fallbackReason = fallbackReason;
+        }
+
+        public OffHeapDictionary getDictionary() {
+            return dictionary;
+        }
+
+        public boolean isFromSnapshot() {
+            return fromSnapshot;
+        }
+
+        // Почему снимок не использован (null, если словарь взят из снимка)
+        public String getFallbackReason() {
+            return fallbackReason;
+        }
+    }
+
+    // Снимок по умолчанию лежит рядом с текстовым словарём: words.txt -> words.txt.snapshot
+    public static Path defaultPath(Path text) {
+        return text.resolveSibling(text.getFileName() + EXTENSION);
+    }
+
+    // ======================= ЗАПИСЬ =======================
+
+    public static OffHeapDictionary compile(Path text) throws IOException {
+        return compile(text, defaultPath(text));
+    }
+
+    // Собирает словарь из текстового файла и записывает снимок; возвращает собранный словарь.
+    // Файл снимка заменяется целиком, поэтому читатели не увидят его наполовину записанным.
+    public static OffHeapDictionary compile(Path text, Path snapshot) throws IOException {
+        // Отметка исходного файла берётся до чтения: изменение во время сборки сделает снимок устаревшим
+        long sourceSize = Files.size(text);
+        long sourceModified = Files.getLastModifiedTime(text).toMillis();
+        OffHeapDictionary dictionary = OffHeapDictionary.loadParallel(text);
+        write(dictionary, snapshot, sourceSize, sourceModified);
+        return dictionary;
+    }
+
+    static void write(OffHeapDictionary dictionary, Path snapshot, long sourceSize, long sourceModified)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, dictionary.size());
+        header.putInt(12, dictionary.slotsView().remaining());
+        header.putInt(16, dictionary.arenaView().remaining());
+        header.putLong(24, sourceSize);
+        header.putLong(32, sourceModified);
+
+        CRC32C crc = new CRC32C();
+        crc.update(header.duplicate().limit(CHECKED_HEADER_BYTES));
+        crc.update(dictionary.slotsView());
+        crc.update(dictionary.arenaView());
+        header.putInt(CRC_OFFSET, (int) crc.getValue());
+
+        Path directory = snapshot.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (ByteBuffer data : new ByteBuffer[] {header, dictionary.slotsView(), dictionary.arenaView()}) {
+                    while (data.hasRemaining()) {
+                        channel.write(data);
+                    }
+                }
+                channel.force(false);
+            }
+            try {
+                Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // ======================= ЧТЕНИЕ =======================
+
+    public static Loaded load(Path text) throws IOException {
+        return load(text, defaultPath(text));
+    }
+
+    // Словарь из снимка, если он есть, цел и собран из текущей версии текстового файла;
+    // иначе - из текстового файла (параллельной загрузкой)
+    public static Loaded load(Path text, Path snapshot) throws IOException {
+        String reason;
+        if (!Files.exists(snapshot)) {
+            reason = "snapshot not found";
+        } else {
+            try {
+                return new Loaded(map(snapshot, Files.exists(text) ? text : null), true, null);
+            } catch (IOException | IllegalArgumentException e) {
+                reason = e.getMessage();
+            }
+        }
+        return new Loaded(OffHeapDictionary.loadParallel(text), false, reason);
+    }
+
+    // Отображает снимок в память. source - текстовый словарь для проверки актуальности
+    // (null - не проверять). Некорректный или устаревший снимок - IOException с причиной.
+    public static OffHeapDictionary map(Path snapshot, Path source) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a dictionary snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version: " + buffer.getInt(4));
+        }
+        int size = buffer.getInt(8);
+        int slotBytes = buffer.getInt(12);
+        int arenaBytes = buffer.getInt(16);
+        if (slotBytes < 0 || arenaBytes < 0 || (long) HEADER_BYTES + slotBytes + arenaBytes != buffer.capacity()) {
+            throw new IOException("Truncated dictionary snapshot: " + buffer.capacity() + " bytes");
+        }
+        if (source != null && (Files.size(source) != buffer.getLong(24)
+                || Files.getLastModifiedTime(source).toMillis() != buffer.getLong(32))) {
+            throw new IOException("Snapshot is stale: " + source.getFileName() + " has changed");
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().limit(CHECKED_HEADER_BYTES));
+        crc.update(buffer.duplicate().position(HEADER_BYTES));
+        if ((int) crc.getValue() != buffer.getInt(CRC_OFFSET)) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+        return OffHeapDictionary.fromBuffers(buffer.slice(HEADER_BYTES, slotBytes),
+                buffer.slice(HEADER_BYTES + slotBytes, arenaBytes), size);
+    }
+}
@@ -0,0 +1,106 @@
+package com.chebotarev.textanalyzer.util;
+
+// Расстояния Дамерау-Левенштейна: вставка, удаление, замена и перестановка
+// двух соседних символов стоят по 1.
+public final class EditDistance {
+
+    private EditDistance() {
+    }
+
+    // Вариант с ограниченной перестановкой (optimal string alignment): переставленные
+    // символы больше не редактируются. Расстояние между a и b, если оно не больше max, иначе max + 1.
+    // Вычисление прекращается, как только вся строка матрицы превысила max.
+    public static int damerauLevenshtein(CharSequence a, CharSequence b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int cost = (ca == cb) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[m], max + 1);
+    }
+
+    // Полное расстояние Дамерау-Левенштейна (алгоритм Лоуренса-Вагнера): в отличие от
+    // damerauLevenshtein выполняется неравенство треугольника, поэтому его можно
+    // использовать как метрику (например, в BK-дереве).
+    public static int fullDamerauLevenshtein(CharSequence a, CharSequence b) {
+        int n = a.length();
+        int m = b.length();
+        int infinity = n + m;
+        int[][] d = new int[n + 2][m + 2];
+        d[0][0] = infinity;
+        for (int i = 0; i <= n; i++) {
+            d[i + 1][0] = infinity;
+            d[i + 1][1] = i;
+        }
+        for (int j = 0; j <= m; j++) {
+            d[0][j + 1] = infinity;
+            d[1][j + 1] = j;
+        }
+
+        // Последняя строка, в которой встретился символ a; слова короткие, поэтому линейный поиск
+        char[] seenChars = new char[n];
+        int[] seenRows = new int[n];
+        int seenCount = 0;
+
+        for (int i = 1; i <= n; i++) {
+            char ca = a.charAt(i - 1);
+            int lastMatchColumn = 0;
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int k = 0;
+                for (int s = 0; s < seenCount; s++) {
+                    if (seenChars[s] == cb) {
+                        k = seenRows[s];
+                        break;
+                    }
+                }
+                int l = lastMatchColumn;
+                int cost = 1;
+                if (ca == cb) {
+                    cost = 0;
+                    lastMatchColumn = j;
+                }
+                int value = Math.min(Math.min(d[i][j] + cost, d[i + 1][j] + 1), d[i][j + 1] + 1);
+                value = Math.min(value, d[k][l] + (i - k - 1) + 1 + (j - l - 1));
+                d[i + 1][j + 1] = value;
+            }
+            int s = 0;
+            while (s < seenCount && seenChars[s] != ca) {
+                s++;
+            }
+            if (s == seenCount) {
+                seenChars[seenCount++] = ca;
+            }
+            seenRows[s] = i;
+        }
+        return d[n + 1][m + 1];
+    }
+}
@@ -0,0 +1,118 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Чтение UTF-8 файла через FileChannel.map без промежуточной строки.
+// Байты декодируются прямо из отображённого буфера и передаются в токенизатор.
+public class MappedTextSource {
+    // Файл отображается окнами, т.к. один MappedByteBuffer ограничен 2 ГБ
+    private static final long REGION_SIZE = 256L * 1024 * 1024;
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private MappedTextSource() {
+    }
+
+    public static void feed(Path path, WordTokenizer tokenizer) throws IOException {
+        feed(path, tokenizer, REGION_SIZE);
+    }
+
+    static void feed(Path path, WordTokenizer tokenizer, long regionSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Utf8Decoder decoder = new Utf8Decoder(tokenizer);
+            for (long position = 0; position < size; position += regionSize) {
+                long length = Math.min(regionSize, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                // Состояние декодера переносится между окнами,
+                // поэтому символ на границе окон собирается корректно
+                for (int i = 0, n = (int) length; i < n; i++) {
+                    decoder.accept(buffer.get(i));
+                }
+            }
+            decoder.finish();
+        }
+    }
+
+    // Потоковый декодер UTF-8 (1-4 байта, 4-байтовые символы -> суррогатная пара).
+    // Некорректные последовательности заменяются на U+FFFD так же, как это делает декодер JDK:
+    // один U+FFFD на максимальную допустимую часть последовательности, после чего
+    // неподходящий байт разбирается заново. Допустимый диапазон второго байта зависит
+    // от первого - так отсекаются избыточные формы (C0, C1, E0 80-9F, F0 80-8F),
+    // суррогаты (ED A0-BF) и значения больше U+10FFFF (F4 90-BF, F5-FF).
+    private static class Utf8Decoder {
+        private final WordTokenizer tokenizer;
+        private int codePoint;
+        private int remaining;
+        // Допустимый диапазон следующего байта продолжения
+        private int lower = 0x80;
+        private int upper = 0xBF;
+
+        Utf8Decoder(WordTokenizer tokenizer) {
+            this.tokenizer = tokenizer;
+        }
+
+        void accept(byte value) {
+            int b = value & 0xFF;
+            if (remaining > 0) {
+                if (b >= lower && b <= upper) {
+                    codePoint = (codePoint << 6) | (b & 0x3F);
+                    lower = 0x80;
+                    upper = 0xBF;
+                    if (--remaining == 0) {
+                        emit(codePoint);
+                    }
+                    return;
+                }
+                // Последовательность оборвалась: байт разбирается как начало нового символа
+                malformed();
+            }
+            if (b < 0x80) {
+                tokenizer.accept((char) b);
+            } else if (b < 0xC2) {
+                // Одиночный байт продолжения или избыточная двухбайтовая форма
+                tokenizer.accept(REPLACEMENT);
+            } else if (b < 0xE0) {
+                start(b & 0x1F, 1, 0x80, 0xBF);
+            } else if (b < 0xF0) {
+                start(b & 0x0F, 2, b == 0xE0 ? 0xA0 : 0x80, b == 0xED ? 0x9F : 0xBF);
+            } else if (b < 0xF5) {
+                start(b & 0x07, 3, b == 0xF0 ? 0x90 : 0x80, b == 0xF4 ? 0x8F : 0xBF);
+            } else {
+                tokenizer.accept(REPLACEMENT);
+            }
+        }
+
+        void finish() {
+            if (remaining > 0) {
+                malformed();
+            }
+        }
+
+        private void start(int bits, int continuations, int nextLower, int nextUpper) {
+            codePoint = bits;
+            remaining = continuations;
+            lower = nextLower;
+            upper = nextUpper;
+        }
+
+        private void malformed() {
+            remaining = 0;
+            lower = 0x80;
+            upper = 0xBF;
+            tokenizer.accept(REPLACEMENT);
+        }
+
+        private void emit(int cp) {
+            if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                tokenizer.accept((char) cp);
+            } else {
+                tokenizer.accept(Character.highSurrogate(cp));
+                tokenizer.accept(Character.lowSurrogate(cp));
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ObjIntConsumer;
+
+// Хеш-таблица ключ -> int с открытой адресацией (линейное пробирование).
+// Ключи, значения и хеши лежат в параллельных массивах: нет объекта Entry
+// на каждую запись и нет упаковки счётчиков в Integer.
+// Ключ null не поддерживается.
+//
+// Защита от подобранных коллизий: строки с одинаковым String.hashCode (например, склейки
+// "ба" и "ая") занимают одну цепочку пробирования, и вставка деградирует до квадратичной.
+// Если при вставке цепочка длиннее MAX_PROBE, таблица один раз перестраивается на хеш
+// содержимого строки со случайным для каждой таблицы зерном; такие коллизии заранее не подобрать.
+// Для ключей не String зерно лишь перемешивает hashCode, одинаковые hashCode по-прежнему сталкиваются.
+public class ObjectIntHashMap<K> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final int MAX_PROBE = 128; // при случайных хешах такая цепочка практически невозможна
+
+    private Object[] keys;
+    private int[] values;
+    private int[] hashes;
+    private int mask;
+    private int size;
+    private int threshold;
+    private boolean seeded;  // хеши в hashes - хеши содержимого с зерном, а не hashCode
+    private long seed;
+
+    public ObjectIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Таблица, вмещающая expectedSize ключей без перестроения
+    public ObjectIntHashMap(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    // Независимая копия: массивы копируются целиком, без повторной вставки ключей
+    public ObjectIntHashMap<K> copy() {
+        ObjectIntHashMap<K> copy = new ObjectIntHashMap<>(0);
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.hashes = hashes.clone();
+        copy.mask = mask;
+        copy.size = size;
+        copy.threshold = threshold;
+        copy.seeded = seeded;
+        copy.seed = seed;
+        return copy;
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new int[capacity];
+        hashes = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Перемешивание битов, чтобы близкие хеши строк не шли подряд
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // ======================= ХЕШИ =======================
+    // В hashes хранится хеш для таблицы: hashCode ключа, а после перехода на зерно -
+    // хеш содержимого с зерном. Все поиски и вставки идут по нему.
+
+    private int tableHash(Object key) {
+        if (!seeded) {
+            return key.hashCode();
+        }
+        if (key instanceof String) {
+            String s = (String) key;
+            long h = seed;
+            for (int i = 0; i < s.length(); i++) {
+                h = step(h, s.charAt(i));
+            }
+            return finish(h);
+        }
+        return finish(seed ^ key.hashCode());
+    }
+
+    private int tableHash(char[] chars, int offset, int length, int hash) {
+        if (!seeded) {
+            return hash;
+        }
+        long h = seed;
+        for (int i = offset; i < offset + length; i++) {
+            h = step(h, chars[i]);
+        }
+        return finish(h);
+    }
+
+    // Нелинейный шаг: без сдвига-исключающего ИЛИ разности хешей не зависели бы от зерна
+    private static long step(long h, char c) {
+        h = (h ^ c) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static int finish(long h) {
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void switchToSeededHash() {
+        seeded = true;
+        seed = ThreadLocalRandom.current().nextLong();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                hashes[i] = tableHash(keys[i]);
+            }
+        }
+        rehash(keys.length);
+    }
+
+    private int slot(Object key, int hash) {
+        int i = mix(hash) & mask;
+        while (keys[i] != null) {
+            if (hashes[i] == hash && keys[i].equals(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return ~i; // свободная ячейка, куда можно вставить ключ
+    }
+
+    private int slot(char[] chars, int offset, int length, int hash) {
+        int i = mix(hash) & mask;
+        while (keys[i] != null) {
+            if (hashes[i] == hash && contentEquals(keys[i], chars, offset, length)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return ~i;
+    }
+
+    private static boolean contentEquals(Object key, char[] chars, int offset, int length) {
+        if (!(key instanceof String)) {
+            return false;
+        }
+        String s = (String) key;
+        if (s.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Значение ключа или 0, если ключа нет
+    public int get(K key) {
+        int i = slot(key, tableHash(key));
+        return i >= 0 ? values[i] : 0;
+    }
+
+    public int get(char[] chars, int offset, int length, int hash) {
+        int i = slot(chars, offset, length, tableHash(chars, offset, length, hash));
+        return i >= 0 ? values[i] : 0;
+    }
+
+    public boolean containsKey(K key) {
+        return slot(key, tableHash(key)) >= 0;
+    }
+
+    public void put(K key, int value) {
+        int hash = tableHash(key);
+        int i = slot(key, hash);
+        if (i >= 0) {
+            values[i] = value;
+        } else {
+            insert(~i, key, hash, value);
+        }
+    }
+
+    // Прибавляет delta к значению ключа (отсутствующий ключ считается равным 0), возвращает новое значение
+    public int addTo(K key, int delta) {
+        int hash = tableHash(key);
+        int i = slot(key, hash);
+        if (i >= 0) {
+            return values[i] += delta;
+        }
+        insert(~i, key, hash, delta);
+        return delta;
+    }
+
+    public int increment(K key) {
+        return addTo(key, 1);
+    }
+
+    // То же по фрагменту char[] с хешем String.hashCode(); только для ключей String.
+    // Строка-ключ создаётся лишь при первом добавлении слова.
+    @SuppressWarnings("unchecked")
+    public int addTo(char[] chars, int offset, int length, int hash, int delta) {
+        hash = tableHash(chars, offset, length, hash);
+        int i = slot(chars, offset, length, hash);
+        if (i >= 0) {
+            return values[i] += delta;
+        }
+        insert(~i, (K) new String(chars, offset, length), hash, delta);
+        return delta;
+    }
+
+    public int increment(char[] chars, int offset, int length, int hash) {
+        return addTo(chars, offset, length, hash, 1);
+    }
+
+    private void insert(int i, K key, int hash, int value) {
+        keys[i] = key;
+        values[i] = value;
+        hashes[i] = hash;
+        if (++size > threshold) {
+            rehash(keys.length * 2);
+        } else if (!seeded && ((i - mix(hash)) & mask) > MAX_PROBE) {
+            switchToSeededHash();
+        }
+    }
+
+    // Удаление со сдвигом следующих записей цепочки пробирования (без "надгробий")
+    public int remove(K key) {
+        int i = slot(key, tableHash(key));
+        if (i < 0) {
+            return 0;
+        }
+        int removed = values[i];
+        int gap = i;
+        int j = (i + 1) & mask;
+        while (keys[j] != null) {
+            int home = mix(hashes[j]) & mask;
+            // Запись j можно перенести в gap, если gap лежит на её пути от home до j
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                hashes[gap] = hashes[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[gap] = null;
+        values[gap] = 0;
+        size--;
+        return removed;
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != null) {
+                int i = mix(oldHashes[j]) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+                hashes[i] = oldHashes[j];
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(ObjIntConsumer<? super K> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keyAt(i), values[i]);
+            }
+        }
+    }
+
+    // ======================= ДОСТУП ПО ЯЧЕЙКАМ =======================
+    // Позволяет обходить таблицу по диапазонам ячеек (например, параллельно).
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    // Ключ в ячейке или null, если ячейка пуста
+    @SuppressWarnings("unchecked")
+    public K keyAt(int slot) {
+        return (K) keys[slot];
+    }
+
+    public int valueAt(int slot) {
+        return values[slot];
+    }
+
+    // Перешла ли таблица на хеш с зерном (для тестов)
+    boolean isSeeded() {
+        return seeded;
+    }
+
+    // Копия в CustomHashMap для кода, работающего с упакованными значениями
+    public CustomHashMap<K, Integer> toCustomHashMap() {
+        CustomHashMap<K, Integer> map = new CustomHashMap<>(size);
+        forEach(map::put);
+        return map;
+    }
+}
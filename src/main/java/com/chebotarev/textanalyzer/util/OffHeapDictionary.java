@@ -0,0 +1,490 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// Словарь вне кучи Java: слова хранятся в UTF-8 в прямом (direct) ByteBuffer,
+// поиск - по таблице смещений с открытой адресацией, тоже в прямом буфере.
+// На куче остаётся только сам объект словаря, поэтому миллионы слов не
+// нагружают сборщик мусора. После build() словарь только читается и потокобезопасен.
+public class OffHeapDictionary implements DictionaryLookup {
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final int SLOT_BYTES = 8;        // хеш слова + (смещение в арене + 1), 0 - пустая ячейка
+    private static final int MAX_WORD_BYTES = 0xFFFF; // длина слова хранится в 2 байтах
+    private static final int MIN_CHUNK_BYTES = 1 << 20;    // меньшие участки не делятся между потоками
+    private static final long MAX_CHUNK_BYTES = 1L << 30;  // участок отображается в память целиком
+
+    private ByteBuffer arena;  // [длина в байтах: 2][байты UTF-8] для каждого слова
+    private ByteBuffer slots;
+    private int arenaSize;
+    private int mask;
+    private int size;
+
+    private OffHeapDictionary(int expectedSize, int expectedBytes) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        mask = capacity - 1;
+        arena = ByteBuffer.allocateDirect(Math.max(1024, expectedBytes));
+    }
+
+    // Готовые таблица и арена (например, отображённые из снимка DictionarySnapshot)
+    private OffHeapDictionary(ByteBuffer slots, ByteBuffer arena, int size) {
+        this.slots = slots;
+        this.arena = arena;
+        this.arenaSize = arena.capacity();
+        this.mask = slots.capacity() / SLOT_BYTES - 1;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder(1024, 16 * 1024);
+    }
+
+    // Заполнение словаря; после build() добавлять слова нельзя
+    public static class Builder {
+        private OffHeapDictionary dictionary;
+
+        private Builder(int expectedSize, int expectedBytes) {
+            dictionary = new OffHeapDictionary(expectedSize, expectedBytes);
+        }
+
+        // Добавляет нормализованное слово; повторы и пустые строки пропускаются
+        public Builder add(String word) {
+            if (dictionary == null) {
+                throw new IllegalStateException("Dictionary is already built");
+            }
+            if (!word.isEmpty()) {
+                dictionary.insert(word);
+            }
+            return this;
+        }
+
+        public OffHeapDictionary build() {
+            OffHeapDictionary built = dictionary;
+            dictionary = null;
+            return built;
+        }
+    }
+
+    public static OffHeapDictionary of(Iterable<String> words) {
+        Builder builder = builder();
+        for (String word : words) {
+            builder.add(word.trim().toLowerCase());
+        }
+        return builder.build();
+    }
+
+    // Загрузка текстового словаря (одно слово в строке) без промежуточного списка строк
+    public static OffHeapDictionary load(Path path) throws IOException {
+        Builder builder = builder();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                builder.add(line.trim().toLowerCase());
+            }
+        }
+        return builder.build();
+    }
+
+    public static OffHeapDictionary loadParallel(Path path) throws IOException {
+        return loadParallel(path, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Параллельная загрузка текстового словаря. Файл делится на участки по границам строк,
+    // каждый участок отображается в память; потоки декодируют, нормализуют, хешируют
+    // и кодируют в UTF-8 слова своего участка. Затем участки по порядку вставляются
+    // в таблицу и арену, размеченные сразу на всё число слов, - без перестроений.
+    // Результат совпадает с load(path), включая порядок слов.
+    public static OffHeapDictionary loadParallel(Path path, int threads) throws IOException {
+        return loadParallel(path, threads, MIN_CHUNK_BYTES);
+    }
+
+    static OffHeapDictionary loadParallel(Path path, int threads, int minChunkBytes) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        List<Chunk> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            // Несколько участков на поток выравнивают нагрузку
+            long count = Math.max(1, Math.min((long) threads * 4, fileSize / Math.max(1, minChunkBytes)));
+            count = Math.max(count, (fileSize + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+            List<Callable<Chunk>> tasks = new ArrayList<>();
+            long from = 0;
+            for (long i = 1; i <= count; i++) {
+                long to = (i == count) ? fileSize : lineStart(channel, fileSize * i / count, fileSize);
+                if (to > from) {
+                    long start = from;
+                    tasks.add(() -> Chunk.parse(channel, start, to));
+                    from = to;
+                }
+            }
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                for (Future<Chunk> future : executor.invokeAll(tasks)) {
+                    chunks.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Dictionary loading interrupted");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+
+        long words = 0;
+        long bytes = 0;
+        for (Chunk chunk : chunks) {
+            words += chunk.count;
+            bytes += chunk.length;
+        }
+        // Повторы слов только уменьшают итог, поэтому места хватит без перестроений
+        OffHeapDictionary dictionary = new OffHeapDictionary((int) Math.min(words, Integer.MAX_VALUE / 2),
+                (int) Math.min(bytes, Integer.MAX_VALUE - 8));
+        for (Chunk chunk : chunks) {
+            int position = 0;
+            for (int k = 0; k < chunk.count; k++) {
+                int length = ((chunk.data[position] & 0xFF) << 8) | (chunk.data[position + 1] & 0xFF);
+                dictionary.insertEncoded(chunk.hashes[k], chunk.data, position + 2, length);
+                position += 2 + length;
+            }
+        }
+        return dictionary;
+    }
+
+    // Начало первой строки, начинающейся не раньше position
+    private static long lineStart(FileChannel channel, long position, long fileSize) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long scan = position - 1;
+        while (scan < fileSize) {
+            buffer.clear();
+            int read = channel.read(buffer, scan);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return scan + i + 1;
+                }
+            }
+            scan += read;
+        }
+        return fileSize;
+    }
+
+    // Слова участка файла: [длина: 2][байты UTF-8] подряд и хеши String.hashCode.
+    // Строки разбираются как в BufferedReader.readLine: концом строки считаются \n, \r и \r\n.
+    private static final class Chunk {
+        byte[] data = new byte[1024];
+        int length;
+        int[] hashes = new int[64];
+        int count;
+
+        static Chunk parse(FileChannel channel, long from, long to) throws IOException {
+            // Граница участка всегда после \n, поэтому последовательности UTF-8 не разрезаются;
+            // некорректный UTF-8 - ошибка, как и при последовательной загрузке
+            CharBuffer text = StandardCharsets.UTF_8.newDecoder()
+                    .decode(channel.map(FileChannel.MapMode.READ_ONLY, from, to - from));
+            char[] chars = text.array();
+            int end = text.arrayOffset() + text.limit();
+            Chunk chunk = new Chunk();
+            int start = text.arrayOffset();
+            for (int i = start; i <= end; i++) {
+                if (i == end || chars[i] == '\n' || chars[i] == '\r') {
+                    if (i > start) {
+                        chunk.add(new String(chars, start, i - start).trim().toLowerCase());
+                    }
+                    start = i + 1;
+                }
+            }
+            return chunk;
+        }
+
+        void add(String word) {
+            if (word.isEmpty()) {
+                return;
+            }
+            byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_WORD_BYTES) {
+                throw new IllegalArgumentException("Word is too long for the dictionary: " + bytes.length + " bytes");
+            }
+            if (length + 2 + bytes.length > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 2 + bytes.length));
+            }
+            data[length] = (byte) (bytes.length >>> 8);
+            data[length + 1] = (byte) bytes.length;
+            System.arraycopy(bytes, 0, data, length + 2, bytes.length);
+            length += 2 + bytes.length;
+            if (count == hashes.length) {
+                hashes = Arrays.copyOf(hashes, count * 2);
+            }
+            hashes[count++] = word.hashCode();
+        }
+    }
+
+    // ======================= ПОСТРОЕНИЕ =======================
+
+    private void insert(String word) {
+        int hash = word.hashCode();
+        if (find(word, hash) >= 0) {
+            return;
+        }
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_WORD_BYTES) {
+            throw new IllegalArgumentException("Word is too long for the dictionary: " + bytes.length + " bytes");
+        }
+        append(hash, bytes, 0, bytes.length);
+    }
+
+    // Вставка уже закодированного слова (байты UTF-8 и хеш String.hashCode)
+    private void insertEncoded(int hash, byte[] bytes, int from, int length) {
+        int i = mix(hash) & mask;
+        int stored;
+        while ((stored = slots.getInt(i * SLOT_BYTES + 4)) != 0) {
+            if (slots.getInt(i * SLOT_BYTES) == hash && bytesEqualAt(stored - 1, bytes, from, length)) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        append(hash, bytes, from, length);
+    }
+
+    private boolean bytesEqualAt(int offset, byte[] bytes, int from, int length) {
+        if ((arena.getShort(offset) & 0xFFFF) != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (arena.get(offset + 2 + i) != bytes[from + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(int hash, byte[] bytes, int from, int length) {
+        if ((long) arenaSize + 2 + length > Integer.MAX_VALUE - 1) {
+            throw new IllegalStateException("Dictionary arena exceeds 2 GB");
+        }
+        if (arenaSize + 2 + length > arena.capacity()) {
+            growArena(arenaSize + 2 + length);
+        }
+        int offset = arenaSize;
+        arena.putShort(offset, (short) length);
+        arena.put(offset + 2, bytes, from, length);
+        arenaSize += 2 + length;
+
+        if (++size > (mask + 1) * LOAD_FACTOR) {
+            growSlots();
+        }
+        placeSlot(hash, offset);
+    }
+
+    private void growArena(int required) {
+        long capacity = arena.capacity();
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        ByteBuffer larger = ByteBuffer.allocateDirect((int) Math.min(capacity, Integer.MAX_VALUE - 8));
+        larger.put(0, arena, 0, arenaSize);
+        arena = larger;
+    }
+
+    private void growSlots() {
+        ByteBuffer old = slots;
+        int oldCapacity = mask + 1;
+        slots = ByteBuffer.allocateDirect(oldCapacity * 2 * SLOT_BYTES);
+        mask = oldCapacity * 2 - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            int stored = old.getInt(i * SLOT_BYTES + 4);
+            if (stored != 0) {
+                placeSlot(old.getInt(i * SLOT_BYTES), stored - 1);
+            }
+        }
+    }
+
+    private void placeSlot(int hash, int offset) {
+        int i = mix(hash) & mask;
+        while (slots.getInt(i * SLOT_BYTES + 4) != 0) {
+            i = (i + 1) & mask;
+        }
+        slots.putInt(i * SLOT_BYTES, hash);
+        slots.putInt(i * SLOT_BYTES + 4, offset + 1);
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // ======================= ПОИСК =======================
+
+    @Override
+    public boolean contains(CharSequence word) {
+        return find(word, CustomHashMap.hash(word)) >= 0;
+    }
+
+    @Override
+    public boolean contains(char[] chars, int offset, int length, int hash) {
+        int i = mix(hash) & mask;
+        int stored;
+        while ((stored = slots.getInt(i * SLOT_BYTES + 4)) != 0) {
+            if (slots.getInt(i * SLOT_BYTES) == hash && equalsAt(stored - 1, chars, offset, length)) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    // Смещение слова в арене или -1
+    private int find(CharSequence word, int hash) {
+        int i = mix(hash) & mask;
+        int stored;
+        while ((stored = slots.getInt(i * SLOT_BYTES + 4)) != 0) {
+            if (slots.getInt(i * SLOT_BYTES) == hash && equalsAt(stored - 1, word)) {
+                return stored - 1;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Сравнение слова в арене с символами без декодирования в строку
+    private boolean equalsAt(int offset, char[] chars, int from, int length) {
+        int position = offset + 2;
+        int end = position + (arena.getShort(offset) & 0xFFFF);
+        int i = from;
+        int limit = from + length;
+        while (position < end) {
+            int codePoint = codePointAt(position);
+            position += sequenceLength(arena.get(position));
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                if (i >= limit || chars[i++] != codePoint) {
+                    return false;
+                }
+            } else if (i + 1 >= limit || chars[i++] != Character.highSurrogate(codePoint)
+                    || chars[i++] != Character.lowSurrogate(codePoint)) {
+                return false;
+            }
+        }
+        return i == limit;
+    }
+
+    private boolean equalsAt(int offset, CharSequence word) {
+        int position = offset + 2;
+        int end = position + (arena.getShort(offset) & 0xFFFF);
+        int i = 0;
+        int limit = word.length();
+        while (position < end) {
+            int codePoint = codePointAt(position);
+            position += sequenceLength(arena.get(position));
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                if (i >= limit || word.charAt(i++) != codePoint) {
+                    return false;
+                }
+            } else if (i + 1 >= limit || word.charAt(i++) != Character.highSurrogate(codePoint)
+                    || word.charAt(i++) != Character.lowSurrogate(codePoint)) {
+                return false;
+            }
+        }
+        return i == limit;
+    }
+
+    // Длина последовательности UTF-8 по первому байту (в арене только корректный UTF-8)
+    private static int sequenceLength(byte first) {
+        int b = first & 0xFF;
+        return (b < 0x80) ? 1 : (b < 0xE0) ? 2 : (b < 0xF0) ? 3 : 4;
+    }
+
+    private int codePointAt(int position) {
+        int b = arena.get(position) & 0xFF;
+        switch (sequenceLength((byte) b)) {
+            case 1:
+                return b;
+            case 2:
+                return ((b & 0x1F) << 6) | (arena.get(position + 1) & 0x3F);
+            case 3:
+                return ((b & 0x0F) << 12) | ((arena.get(position + 1) & 0x3F) << 6)
+                        | (arena.get(position + 2) & 0x3F);
+            default:
+                return ((b & 0x07) << 18) | ((arena.get(position + 1) & 0x3F) << 12)
+                        | ((arena.get(position + 2) & 0x3F) << 6) | (arena.get(position + 3) & 0x3F);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Слова в порядке добавления
+    @Override
+    public void forEachWord(Consumer<String> action) {
+        int position = 0;
+        while (position < arenaSize) {
+            int length = arena.getShort(position) & 0xFFFF;
+            byte[] bytes = new byte[length];
+            arena.get(position + 2, bytes);
+            action.accept(new String(bytes, StandardCharsets.UTF_8));
+            position += 2 + length;
+        }
+    }
+
+    // ======================= СНИМОК =======================
+    // Таблица и арена сохраняются и отображаются DictionarySnapshot байт в байт.
+
+    // Таблица ячеек только для чтения
+    ByteBuffer slotsView() {
+        return slots.asReadOnlyBuffer().clear();
+    }
+
+    // Занятая часть арены только для чтения
+    ByteBuffer arenaView() {
+        return arena.asReadOnlyBuffer().clear().limit(arenaSize);
+    }
+
+    // Словарь поверх готовых буферов; число ячеек должно быть степенью двойки
+    static OffHeapDictionary fromBuffers(ByteBuffer slots, ByteBuffer arena, int size) {
+        int capacity = slots.capacity() / SLOT_BYTES;
+        if (slots.capacity() % SLOT_BYTES != 0 || Integer.bitCount(capacity) != 1 || size >= capacity) {
+            throw new IllegalArgumentException("Invalid slot table: " + slots.capacity() + " bytes for " + size + " words");
+        }
+        return new OffHeapDictionary(slots, arena, size);
+    }
+
+    // Объём памяти вне кучи в байтах (арена и таблица)
+    public long offHeapBytes() {
+        return (long) arena.capacity() + slots.capacity();
+    }
+}
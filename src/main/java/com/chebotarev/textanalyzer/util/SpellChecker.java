@@ -1,26 +1,47 @@
 package com.chebotarev.textanalyzer.util;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 public class SpellChecker {
-    private final CustomHashMap<String, Boolean> dictionary;
-    private static final String CYRILLIC_ALPHABET = "абвгдеёжзийклмнопрстуфхцчшщъыьэюя";
-    private static final String LATIN_ALPHABET = "abcdefghijklmnopqrstuvwxyz";
-    private static final String ALPHABET = CYRILLIC_ALPHABET + LATIN_ALPHABET;
+    // Сколько различных ошибочных слов помнит кэш предложений по умолчанию
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private final DictionaryLookup dictionary;
+    private final SuggestionEngine engine;
+    private final SuggestionCache cache; // null, если кэш отключён
 
     public SpellChecker(CustomHashMap<String, Boolean> dictionary) {
+        this(DictionaryLookup.of(dictionary));
+    }
+
+    // Любой словарь с общим интерфейсом поиска, например OffHeapDictionary
+    public SpellChecker(DictionaryLookup dictionary) {
+        this(dictionary, new CandidateSuggestionEngine(dictionary));
+    }
+
+    // Словарь с выбранным алгоритмом подбора исправлений (см. SuggestionEngine)
+    public SpellChecker(DictionaryLookup dictionary, SuggestionEngine engine) {
+        this(dictionary, engine, DEFAULT_CACHE_SIZE);
+    }
+
+    // cacheSize - число слов в кэше предложений, 0 отключает кэш
+    public SpellChecker(DictionaryLookup dictionary, SuggestionEngine engine, int cacheSize) {
         this.dictionary = dictionary;
+        this.engine = engine;
+        this.cache = cacheSize > 0 ? new SuggestionCache(cacheSize) : null;
     }
 
     public boolean isCorrect(String word) {
-        return dictionary.get(word.toLowerCase()) != null;
+        return dictionary.contains(word.toLowerCase());
+    }
+
+    // Проверка уже нормализованного (строчного) слова без создания строки
+    public boolean isCorrect(char[] chars, int offset, int length, int hash) {
+        return dictionary.contains(chars, offset, length, hash);
     }
 
     public List<String> getSuggestions(String word) {
-        Set<String> suggestions = new HashSet<>();
         String lowerWord = word.toLowerCase();
 
         // Пропускаем правильные слова
@@ -28,50 +49,26 @@ public class SpellChecker {
             return new ArrayList<>();
         }
 
-        // Генерируем предложения
-        generateSuggestions(lowerWord, suggestions);
-
-        return new ArrayList<>(suggestions);
-    }
-
-    private void generateSuggestions(String word, Set<String> suggestions) {
-        // 1. Замены
-        for (int i = 0; i < word.length(); i++) {
-            for (char c : ALPHABET.toCharArray()) {
-                String candidate = word.substring(0, i) + c + word.substring(i + 1);
-                checkCandidate(candidate, suggestions);
-            }
+        if (cache == null) {
+            return engine.suggest(lowerWord);
         }
 
-        // 2. Вставки
-        for (int i = 0; i <= word.length(); i++) {
-            for (char c : ALPHABET.toCharArray()) {
-                String candidate = word.substring(0, i) + c + word.substring(i);
-                checkCandidate(candidate, suggestions);
+        // Одни и те же ошибки повторяются из текста в текст - берём готовые предложения из кэша
+        long version = dictionary.version();
+        List<String> suggestions = cache.get(lowerWord, version);
+        if (suggestions == null) {
+            suggestions = engine.suggest(lowerWord);
+            // Если словарь изменился во время подбора, результат может быть устаревшим
+            if (dictionary.version() == version) {
+                cache.put(lowerWord, suggestions, version);
             }
         }
-
-        // 3. Удаления
-        for (int i = 0; i < word.length(); i++) {
-            String candidate = word.substring(0, i) + word.substring(i + 1);
-            checkCandidate(candidate, suggestions);
-        }
-
-        // 4. Перестановка
-        for (int i = 0; i < word.length() - 1; i++) {
-            char[] chars = word.toCharArray();
-            char temp = chars[i];
-            chars[i] = chars[i + 1];
-            chars[i + 1] = temp;
-            String candidate = new String(chars);
-            checkCandidate(candidate, suggestions);
-        }
+        // Вызывающий код получает собственную копию списка
+        return new ArrayList<>(suggestions);
     }
 
-    private void checkCandidate(String candidate, Set<String> suggestions) {
-        if (candidate.length() >= 2 && dictionary.get(candidate) != null) {
-            suggestions.add(candidate);
-        }
+    // Кэш предложений со счётчиками попаданий или null, если кэш отключён
+    public SuggestionCache getSuggestionCache() {
+        return cache;
     }
 }
-
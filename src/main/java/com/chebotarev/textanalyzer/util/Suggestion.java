@@ -0,0 +1,29 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Найденное слово словаря и его расстояние до проверяемого слова
+final class Suggestion {
+    private static final Comparator<Suggestion> ORDER =
+            Comparator.comparingInt((Suggestion s) -> s.distance).thenComparing(s -> s.word);
+
+    final String word;
+    final int distance;
+
+    Suggestion(String word, int distance) {
+        this.word = word;
+        this.distance = distance;
+    }
+
+    // Не больше limit слов: сначала ближайшие, при равном расстоянии - по алфавиту
+    static List<String> ranked(List<Suggestion> found, int limit) {
+        found.sort(ORDER);
+        List<String> result = new ArrayList<>(Math.min(limit, found.size()));
+        for (int i = 0; i < found.size() && i < limit; i++) {
+            result.add(found.get(i).word);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,133 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.List;
+
+// Ограниченный по размеру кэш предложений с вытеснением давно не использованных (LRU).
+// Ключ - нормализованное слово. Все операции синхронизированы; сами предложения
+// вычисляются вне блокировки, поэтому медленный подбор не задерживает другие потоки.
+// Кэш привязан к версии словаря (DictionaryLookup.version): при смене версии он очищается.
+public class SuggestionCache {
+    private final int maxSize;
+    private final CustomHashMap<String, Node> entries;
+    private final Node head = new Node(null, null); // head.next - самая свежая запись, head.prev - самая старая
+    private long dictionaryVersion;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    // Элемент двусвязного списка в порядке последнего обращения
+    private static class Node {
+        final String word;
+        final List<String> suggestions;
+        Node prev;
+        Node next;
+
+        Node(String word, List<String> suggestions) {
+            this.word = word;
+            this.suggestions = suggestions;
+        }
+    }
+
+    public SuggestionCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.entries = new CustomHashMap<>(Math.min(maxSize, 1024));
+        head.prev = head;
+        head.next = head;
+    }
+
+    // Предложения для слова или null, если их нет в кэше для этой версии словаря
+    public synchronized List<String> get(String word, long version) {
+        checkVersion(version);
+        Node node = entries.get(word);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        unlink(node);
+        linkFirst(node);
+        return node.suggestions;
+    }
+
+    public synchronized void put(String word, List<String> suggestions, long version) {
+        checkVersion(version);
+        Node node = new Node(word, suggestions);
+        Node previous = entries.get(word);
+        if (previous != null) {
+            unlink(previous);
+        }
+        entries.put(word, node);
+        linkFirst(node);
+        if (entries.size() > maxSize) {
+            Node eldest = head.prev;
+            unlink(eldest);
+            entries.remove(eldest.word);
+            evictions++;
+        }
+    }
+
+    private void checkVersion(long version) {
+        if (version != dictionaryVersion) {
+            dictionaryVersion = version;
+            if (!entries.isEmpty()) {
+                invalidate();
+            }
+        }
+    }
+
+    // Удаляет все записи (например, после изменения словаря)
+    public synchronized void invalidate() {
+        entries.clear();
+        head.prev = head;
+        head.next = head;
+        invalidations++;
+    }
+
+    private void unlink(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+    }
+
+    private void linkFirst(Node node) {
+        node.prev = head;
+        node.next = head.next;
+        head.next.prev = node;
+        head.next = node;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long requests = hits + misses;
+        return String.format("%d hits, %d misses (%.1f%% hit rate), %d evictions, %d/%d entries",
+                hits, misses, requests == 0 ? 0.0 : 100.0 * hits / requests, evictions, entries.size(), maxSize);
+    }
+}
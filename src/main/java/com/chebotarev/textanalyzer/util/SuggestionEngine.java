@@ -0,0 +1,12 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.List;
+
+/**
+ * Алгоритм подбора исправлений для слова, которого нет в словаре.
+ * Слово передаётся уже нормализованным (нижний регистр).
+ */
+public interface SuggestionEngine {
+
+    List<String> suggest(String word);
+}
@@ -0,0 +1,156 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Подбор исправлений по индексу удалений (симметричное удаление, как в SymSpell).
+// При построении для каждого слова словаря вычисляются все варианты с удалением
+// до maxDistance символов; при поиске те же удаления строятся для ошибочного слова,
+// и общие варианты дают кандидатов. Кандидаты проверяются точным расстоянием
+// Дамерау-Левенштейна, поэтому результат совпадает с полным перебором словаря.
+// Удаления считаются только по первым prefixLength символам слова: это ограничивает
+// размер индекса для длинных слов, а хвост слова сверяется при проверке расстояния.
+// Индекс строится один раз: изменения словаря после построения не учитываются.
+public class SymSpellEngine implements SuggestionEngine {
+    public static final int DEFAULT_MAX_DISTANCE = 2;
+    public static final int DEFAULT_PREFIX_LENGTH = 7;
+
+    private final int maxDistance;
+    private final int prefixLength;
+    private final String[] words;
+    private final CustomHashMap<String, WordList> deletes;
+
+    // Номера слов словаря, дающих одно и то же удаление
+    private static class WordList {
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            // Один и тот же вариант может получиться у слова разными удалениями,
+            // но слова добавляются по порядку, так что повтор всегда последний
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    public SymSpellEngine(DictionaryLookup dictionary) {
+        this(dictionary, DEFAULT_MAX_DISTANCE, DEFAULT_PREFIX_LENGTH);
+    }
+
+    public SymSpellEngine(DictionaryLookup dictionary, int maxDistance, int prefixLength) {
+        if (maxDistance < 1) {
+            throw new IllegalArgumentException("Max distance must be positive: " + maxDistance);
+        }
+        if (prefixLength <= maxDistance) {
+            throw new IllegalArgumentException("Prefix length must exceed max distance: " + prefixLength);
+        }
+        this.maxDistance = maxDistance;
+        this.prefixLength = prefixLength;
+
+        List<String> collected = new ArrayList<>(dictionary.size());
+        dictionary.forEachWord(collected::add);
+        this.words = collected.toArray(new String[0]);
+        // Примерная оценка: префикс длиной 7 при расстоянии 2 даёт до 29 вариантов
+        this.deletes = new CustomHashMap<>(words.length * 8);
+
+        char[] buffer = new char[prefixLength];
+        for (int id = 0; id < words.length; id++) {
+            String word = words[id];
+            int length = Math.min(word.length(), prefixLength);
+            word.getChars(0, length, buffer, 0);
+            addDeletes(buffer, length, maxDistance, id);
+        }
+    }
+
+    // Добавляет в индекс сам фрагмент и все варианты с удалением до budget символов.
+    // Повторы внутри одного слова отсекает WordList.add.
+    private void addDeletes(char[] chars, int length, int budget, int id) {
+        int hash = CustomHashMap.hash(chars, 0, length);
+        WordList list = deletes.get(chars, 0, length, hash);
+        if (list == null) {
+            list = new WordList();
+            deletes.put(new String(chars, 0, length), list);
+        }
+        list.add(id);
+        if (budget == 0 || length == 0) {
+            return;
+        }
+        char[] shorter = new char[length - 1];
+        for (int i = 0; i < length; i++) {
+            // Удаление i-го символа; для одинаковых соседних символов результат тот же, что у i-1
+            if (i > 0 && chars[i] == chars[i - 1]) {
+                continue;
+            }
+            System.arraycopy(chars, 0, shorter, 0, i);
+            System.arraycopy(chars, i + 1, shorter, i, length - i - 1);
+            addDeletes(shorter, length - 1, budget - 1, id);
+        }
+    }
+
+    @Override
+    public List<String> suggest(String word) {
+        String prefix = word.length() > prefixLength ? word.substring(0, prefixLength) : word;
+
+        // Удаления ошибочного слова, по уровням расстояния
+        Set<String> variants = new HashSet<>();
+        List<String> level = new ArrayList<>();
+        level.add(prefix);
+        variants.add(prefix);
+        for (int distance = 1; distance <= maxDistance; distance++) {
+            List<String> next = new ArrayList<>();
+            for (String variant : level) {
+                for (int i = 0; i < variant.length(); i++) {
+                    String shorter = variant.substring(0, i) + variant.substring(i + 1);
+                    if (variants.add(shorter)) {
+                        next.add(shorter);
+                    }
+                }
+            }
+            level = next;
+        }
+
+        // Кандидаты из индекса с проверкой точного расстояния
+        Set<Integer> checked = new HashSet<>();
+        List<Suggestion> found = new ArrayList<>();
+        for (String variant : variants) {
+            WordList list = deletes.get(variant);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size; i++) {
+                int id = list.ids[i];
+                if (!checked.add(id)) {
+                    continue;
+                }
+                String candidate = words[id];
+                if (candidate.length() < 2) {
+                    continue;
+                }
+                int distance = EditDistance.damerauLevenshtein(word, candidate, maxDistance);
+                if (distance <= maxDistance) {
+                    found.add(new Suggestion(candidate, distance));
+                }
+            }
+        }
+
+        // Сначала ближайшие, при равном расстоянии - по алфавиту
+        return Suggestion.ranked(found, Integer.MAX_VALUE);
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    // Число различных вариантов удаления в индексе
+    public int indexSize() {
+        return deletes.size();
+    }
+}
@@ -0,0 +1,251 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.Arrays;
+
+// Позиционный инвертированный индекс: нормализованное слово -> номера слов и смещения в тексте.
+// Строится один раз за проход токенизатора, после чего поиск слова - одно обращение к хеш-таблице.
+public class WordIndex implements WordTokenizer.Handler {
+    private static final int[] EMPTY = new int[0];
+
+    private final CustomHashMap<String, Postings> postings;
+    private int totalWords;
+
+    public WordIndex() {
+        postings = new CustomHashMap<>();
+    }
+
+    private WordIndex(int expectedWords) {
+        postings = new CustomHashMap<>(expectedWords);
+    }
+
+    // Списки вхождений одного слова в компактных массивах int.
+    // После copy() массивы общие для обоих индексов (shared) и копируются перед первым изменением.
+    private static class Postings {
+        int[] positions;
+        int[] offsets;
+        int size;
+        boolean shared;
+
+        Postings() {
+            positions = new int[4];
+            offsets = new int[4];
+        }
+
+        Postings(Postings other) {
+            positions = other.positions;
+            offsets = other.offsets;
+            size = other.size;
+            shared = true;
+        }
+
+        // Собственные массивы перед изменением списка
+        void unshare() {
+            if (shared) {
+                positions = Arrays.copyOf(positions, Math.max(size, 4));
+                offsets = Arrays.copyOf(offsets, Math.max(size, 4));
+                shared = false;
+            }
+        }
+
+        void add(int position, int offset) {
+            unshare();
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            positions[size] = position;
+            offsets[size] = offset;
+            size++;
+        }
+
+        // Индекс первого вхождения с позицией >= position
+        int lowerBound(int position) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (positions[mid] < position) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void insert(int position, int offset) {
+            int i = lowerBound(position);
+            if (i == size) {
+                add(position, offset);
+                return;
+            }
+            unshare();
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            System.arraycopy(positions, i, positions, i + 1, size - i);
+            System.arraycopy(offsets, i, offsets, i + 1, size - i);
+            positions[i] = position;
+            offsets[i] = offset;
+            size++;
+        }
+
+        boolean remove(int position) {
+            int i = lowerBound(position);
+            if (i == size || positions[i] != position) {
+                return false;
+            }
+            unshare();
+            System.arraycopy(positions, i + 1, positions, i, size - i - 1);
+            System.arraycopy(offsets, i + 1, offsets, i, size - i - 1);
+            size--;
+            return true;
+        }
+
+        void trim() {
+            if (size != positions.length) {
+                positions = Arrays.copyOf(positions, size);
+                offsets = Arrays.copyOf(offsets, size);
+                shared = false;
+            }
+        }
+    }
+
+    public static WordIndex build(CharSequence text) {
+        WordIndex index = new WordIndex();
+        if (text != null) {
+            WordTokenizer.tokenize(text, index);
+        }
+        index.trim();
+        return index;
+    }
+
+    // Независимая копия индекса (например, снимок для результата инкрементального анализа).
+    // Линейна по числу различных слов: массивы вхождений общие с исходным индексом,
+    // и тот из двух индексов, что меняет список слова, сначала копирует его.
+    public WordIndex copy() {
+        WordIndex copy = new WordIndex(postings.size());
+        postings.forEach((word, list) -> {
+            list.shared = true;
+            copy.postings.put(word, new Postings(list));
+        });
+        copy.totalWords = totalWords;
+        return copy;
+    }
+
+    @Override
+    public void onWord(WordTokenizer token) {
+        // Позиции считаются по буквенной форме слова, как в findWordPositions
+        if (token.letterLength() == 0) {
+            return;
+        }
+        // Номер слова не больше смещения, поэтому достаточно проверить смещение
+        if (token.start() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Text is too long for a word index: offset " + token.start()
+                    + " exceeds " + Integer.MAX_VALUE + " chars, analyze it without positions");
+        }
+        list(token).add((int) token.index(), (int) token.start());
+        totalWords++;
+    }
+
+    // ======================= ИНКРЕМЕНТАЛЬНОЕ ОБНОВЛЕНИЕ =======================
+
+    private Postings find(WordTokenizer token) {
+        return postings.get(token.letterChars(), 0, token.letterLength(), token.letterHash());
+    }
+
+    // Список вхождений слова токенизатора, ключ-строка создаётся только для нового слова
+    private Postings list(WordTokenizer token) {
+        Postings list = find(token);
+        if (list == null) {
+            list = new Postings();
+            postings.put(new String(token.letterChars(), 0, token.letterLength()), list);
+        }
+        return list;
+    }
+
+    // Добавляет вхождение текущего слова токенизатора с заданной позицией и смещением
+    public void insert(WordTokenizer token, int position, int offset) {
+        if (token.letterLength() == 0) {
+            return;
+        }
+        list(token).insert(position, offset);
+        totalWords++;
+    }
+
+    // Удаляет вхождение текущего слова токенизатора с заданной позицией
+    public void remove(WordTokenizer token, int position) {
+        if (token.letterLength() == 0) {
+            return;
+        }
+        Postings list = find(token);
+        if (list != null && list.remove(position)) {
+            totalWords--;
+            if (list.size == 0) {
+                postings.remove(new String(token.letterChars(), 0, token.letterLength()));
+            }
+        }
+    }
+
+    // Сдвигает все вхождения с позицией >= fromPosition (после правки текста)
+    public void shift(int fromPosition, int positionDelta, int offsetDelta) {
+        if (positionDelta == 0 && offsetDelta == 0) {
+            return;
+        }
+        postings.forEach((word, list) -> {
+            int from = list.lowerBound(fromPosition);
+            if (from < list.size) {
+                list.unshare();
+            }
+            for (int i = from; i < list.size; i++) {
+                list.positions[i] += positionDelta;
+                list.offsets[i] += offsetDelta;
+            }
+        });
+    }
+
+    // Обрезает списки до фактического размера после построения
+    public void trim() {
+        postings.forEach((word, list) -> list.trim());
+    }
+
+    private Postings find(String word) {
+        if (word == null) {
+            return null;
+        }
+        return postings.get(word.toLowerCase().trim());
+    }
+
+    // Номера слов (по порядку в тексте). Копия: shift() и правки индекса её не меняют.
+    public int[] positions(String word) {
+        Postings list = find(word);
+        return list == null ? EMPTY : Arrays.copyOf(list.positions, list.size);
+    }
+
+    // Смещения начала слов в символах исходного текста (копия)
+    public int[] offsets(String word) {
+        Postings list = find(word);
+        return list == null ? EMPTY : Arrays.copyOf(list.offsets, list.size);
+    }
+
+    // Смещение первого вхождения слова или -1 (без копирования массива)
+    public int firstOffset(String word) {
+        Postings list = find(word);
+        return list == null ? -1 : list.offsets[0];
+    }
+
+    public int count(String word) {
+        Postings list = find(word);
+        return list == null ? 0 : list.size;
+    }
+
+    // Количество различных слов в индексе
+    public int size() {
+        return postings.size();
+    }
+
+    public int getTotalWords() {
+        return totalWords;
+    }
+}
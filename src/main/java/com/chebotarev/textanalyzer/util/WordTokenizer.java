@@ -0,0 +1,283 @@
+package com.chebotarev.textanalyzer.util;
+
+import java.util.Locale;
+
+// Однопроходный токенизатор без регулярных выражений.
+// Делит текст на фрагменты по пробельным символам и нормализует их "на лету":
+// нижний регистр, только буквы a-z/а-я/ё и цифры 0-9.
+public class WordTokenizer {
+
+    // Таблица нормализации: символ -> строчная буква (a-z, а-я, ё) или 0
+    private static final char[] LETTERS = new char[Character.MAX_VALUE + 1];
+
+    static {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            String lower = String.valueOf((char) c).toLowerCase(Locale.ROOT);
+            for (int i = 0; i < lower.length(); i++) {
+                char l = lower.charAt(i);
+                if (isNormalizedLetter(l)) {
+                    LETTERS[c] = l;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Получатель токенов. Переданный токенизатор валиден только во время вызова,
+     * буферы переиспользуются для следующих слов.
+     */
+    public interface Handler {
+        // Непробельный фрагмент, содержащий хотя бы одну букву или цифру
+        void onWord(WordTokenizer token);
+
+        // Непрерывная последовательность букв (вызывается, только если включена)
+        default void onLetterRun(WordTokenizer token) {
+        }
+    }
+
+    private final Handler handler;
+    private final boolean letterRuns;
+
+    private char[] word = new char[32];
+    private int wordLength;
+    private int letterLength;
+    private char[] letters = new char[32];
+    private char[] run = new char[32];
+    private int runLength;
+
+    // Хеши считаются по мере добавления символов и совпадают с String.hashCode()
+    private int wordHash;
+    private int letterHash;
+    private int runHash;
+
+    // Номера и смещения в long: потоковые источники (analyze(Path), MappedTextSource)
+    // пропускают через один токенизатор больше 2^31 символов
+    private boolean inWord;
+    private long index;
+    private long position;
+    private long start;
+    private long end;
+
+    public WordTokenizer(Handler handler) {
+        this(handler, false);
+    }
+
+    public WordTokenizer(Handler handler, boolean letterRuns) {
+        this.handler = handler;
+        this.letterRuns = letterRuns;
+    }
+
+    public static void tokenize(CharSequence text, Handler handler) {
+        WordTokenizer tokenizer = new WordTokenizer(handler);
+        tokenizer.feed(text);
+        tokenizer.finish();
+    }
+
+    public static boolean isWhitespace(char c) {
+        // Тот же набор, что и \s в регулярных выражениях
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    // Нормализованная буква для символа или 0, если символ не буква
+    public static char normalize(char c) {
+        return LETTERS[c];
+    }
+
+    private static boolean isNormalizedLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'а' && c <= 'я') || c == 'ё';
+    }
+
+    public void feed(CharSequence text) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            accept(text.charAt(i));
+        }
+    }
+
+    // Фрагмент текста [from, to)
+    public void feed(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            accept(text.charAt(i));
+        }
+    }
+
+    public void feed(char[] chars, int offset, int length) {
+        for (int i = offset, n = offset + length; i < n; i++) {
+            accept(chars[i]);
+        }
+    }
+
+    public void accept(char c) {
+        if (isWhitespace(c)) {
+            if (inWord) {
+                endWord();
+            }
+        } else {
+            if (!inWord) {
+                inWord = true;
+                start = position;
+                wordLength = 0;
+                letterLength = 0;
+                wordHash = 0;
+                letterHash = 0;
+            }
+            char letter = LETTERS[c];
+            if (letter != 0) {
+                appendToWord(letter);
+                letterLength++;
+                letterHash = 31 * letterHash + letter;
+                if (letterRuns) {
+                    if (runLength == run.length) {
+                        run = grow(run);
+                    }
+                    run[runLength++] = letter;
+                    runHash = 31 * runHash + letter;
+                }
+            } else {
+                if (c >= '0' && c <= '9') {
+                    appendToWord(c);
+                }
+                if (runLength > 0) {
+                    endRun();
+                }
+            }
+        }
+        position++;
+    }
+
+    // Пропускает chars пробельных символов, не передавая их по одному (в тестах - переход к большим смещениям)
+    void skip(long chars) {
+        if (inWord) {
+            endWord();
+        }
+        position += chars;
+    }
+
+    // Завершает последнее слово во входных данных
+    public void finish() {
+        if (inWord) {
+            endWord();
+        }
+    }
+
+    private void appendToWord(char c) {
+        if (wordLength == word.length) {
+            word = grow(word);
+        }
+        word[wordLength++] = c;
+        wordHash = 31 * wordHash + c;
+    }
+
+    private void endWord() {
+        if (runLength > 0) {
+            endRun();
+        }
+        inWord = false;
+        end = position;
+        if (wordLength > 0) {
+            handler.onWord(this);
+        }
+        index++;
+    }
+
+    private void endRun() {
+        handler.onLetterRun(this);
+        runLength = 0;
+        runHash = 0;
+    }
+
+    private static char[] grow(char[] buffer) {
+        char[] larger = new char[buffer.length * 2];
+        System.arraycopy(buffer, 0, larger, 0, buffer.length);
+        return larger;
+    }
+
+    // ======================= ДОСТУП К ТЕКУЩЕМУ ТОКЕНУ =======================
+
+    // Буквы и цифры текущего слова
+    public char[] wordChars() {
+        return word;
+    }
+
+    public int wordLength() {
+        return wordLength;
+    }
+
+    public String word() {
+        return new String(word, 0, wordLength);
+    }
+
+    public int wordHash() {
+        return wordHash;
+    }
+
+    // Только буквы текущего слова (цифры отброшены)
+    public char[] letterChars() {
+        if (letterLength == wordLength) {
+            return word;
+        }
+        if (letters.length < letterLength) {
+            letters = new char[word.length];
+        }
+        int j = 0;
+        for (int i = 0; i < wordLength; i++) {
+            char c = word[i];
+            if (c < '0' || c > '9') {
+                letters[j++] = c;
+            }
+        }
+        return letters;
+    }
+
+    public int letterLength() {
+        return letterLength;
+    }
+
+    public int letterHash() {
+        return letterHash;
+    }
+
+    public boolean letterEquals(String other) {
+        if (other.length() != letterLength) {
+            return false;
+        }
+        char[] chars = letterChars();
+        for (int i = 0; i < letterLength; i++) {
+            if (chars[i] != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public char[] runChars() {
+        return run;
+    }
+
+    public int runLength() {
+        return runLength;
+    }
+
+    public String letterRun() {
+        return new String(run, 0, runLength);
+    }
+
+    public int runHash() {
+        return runHash;
+    }
+
+    // Порядковый номер фрагмента среди всех непробельных фрагментов текста
+    public long index() {
+        return index;
+    }
+
+    // Смещение начала фрагмента в исходном тексте
+    public long start() {
+        return start;
+    }
+
+    // Смещение конца фрагмента (не включительно)
+    public long end() {
+        return end;
+    }
+}
@@ -0,0 +1,69 @@
+package com.chebotarev.textanalyzer.service;
+
+import com.chebotarev.textanalyzer.model.AnalysisOptions;
+import com.chebotarev.textanalyzer.model.CorpusResult;
+import com.chebotarev.textanalyzer.util.CustomHashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorpusAnalyzerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMergesFilesFromNestedDirectories() throws IOException {
+        CustomHashMap<String, Boolean> dictionary = new CustomHashMap<>();
+        dictionary.put("hello", true);
+        dictionary.put("world", true);
+        TextAnalysisService service = new TextAnalysisService(dictionary);
+
+        StringBuilder all = new StringBuilder();
+        Files.createDirectories(tempDir.resolve("a/b"));
+        for (int i = 0; i < 200; i++) {
+            String text = "hello world word" + (i % 7) + " helo ";
+            Path dir = (i % 3 == 0) ? tempDir : tempDir.resolve(i % 3 == 1 ? "a" : "a/b");
+            Files.writeString(dir.resolve("file" + i + ".txt"), text, StandardCharsets.UTF_8);
+            all.append(text);
+        }
+
+        AnalysisOptions options = AnalysisOptions.defaults();
+        // Ограничение в 4 открытых файла при 200 задачах
+        CorpusResult corpus = new CorpusAnalyzer(service, options, 4).analyze(tempDir);
+        CustomHashMap<String, Integer> expected = service.countWords(all.toString());
+
+        assertEquals(200, corpus.getFiles().size());
+        assertTrue(corpus.getFailures().isEmpty());
+        assertEquals((long) service.countTotalWords(all.toString()), corpus.getTotalWords());
+        assertEquals(expected.size(), corpus.getUniqueWords());
+        for (CustomHashMap.Entry<String, Integer> entry : expected.entries()) {
+            assertEquals((int) entry.value, corpus.getFrequency(entry.key));
+        }
+        // Сводная таблица отдаётся копией
+        corpus.getCounts().put("hello", 0);
+        assertEquals((int) expected.get("hello"), corpus.getFrequency("hello"));
+        assertEquals(service.topK(expected, options.getTopK()).size(), corpus.getTopWords().size());
+
+        CorpusResult.FileResult first = corpus.getFiles().get(0);
+        assertEquals(4, first.getTotalWords());
+        assertEquals(4, first.getUniqueWords());
+        assertTrue(first.isSpellingChecked());
+        assertEquals(2, first.getMisspelledWords()); // "word0" и "helo"
+    }
+
+    @Test
+    void testEmptyDirectory() throws IOException {
+        TextAnalysisService service = new TextAnalysisService(new CustomHashMap<>());
+        CorpusResult corpus = new CorpusAnalyzer(service, AnalysisOptions.defaults()).analyze(tempDir);
+
+        assertTrue(corpus.getFiles().isEmpty());
+        assertEquals(0L, corpus.getTotalWords());
+        assertTrue(corpus.getTopWords().isEmpty());
+    }
+}
@@ -0,0 +1,139 @@
+package com.chebotarev.textanalyzer.service;
+
+import com.chebotarev.textanalyzer.model.AnalysisOptions;
+import com.chebotarev.textanalyzer.model.AnalysisResult;
+import com.chebotarev.textanalyzer.util.CustomHashMap;
+import com.chebotarev.textanalyzer.util.WordIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalAnalyzerTest {
+    private static final AnalysisOptions OPTIONS = AnalysisOptions.defaults().withPositions(true);
+    private static final String[] WORDS = {"hello", "helo", "world", "javva", "java", "привет", "42", "don't", "..."};
+
+    private TextAnalysisService service;
+    private IncrementalAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        CustomHashMap<String, Boolean> dictionary = new CustomHashMap<>();
+        dictionary.put("hello", true);
+        dictionary.put("world", true);
+        dictionary.put("java", true);
+        service = new TextAnalysisService(dictionary);
+        analyzer = service.newIncrementalAnalyzer();
+    }
+
+    private void assertSameAsFullAnalysis(String text, AnalysisResult actual) {
+        AnalysisResult expected = service.analyze(text, OPTIONS);
+
+        assertEquals(expected.getTotalWords(), actual.getTotalWords());
+        assertEquals(expected.getUniqueWords(), actual.getUniqueWords());
+        for (var entry : expected.getFrequencies().entries()) {
+            assertEquals((int) entry.value, actual.getFrequency(entry.key), entry.key);
+        }
+        CustomHashMap<String, List<String>> actualErrors = actual.getSpellingErrors();
+        assertEquals(expected.getSpellingErrorCount(), actual.getSpellingErrorCount());
+        for (var entry : expected.getSpellingErrors().entries()) {
+            assertNotNull(actualErrors.get(entry.key), entry.key);
+            assertEquals(expected.getErrorOccurrences(entry.key), actual.getErrorOccurrences(entry.key), entry.key);
+        }
+        WordIndex expectedIndex = expected.getIndex();
+        WordIndex actualIndex = actual.getIndex();
+        assertEquals(expectedIndex.size(), actualIndex.size());
+        for (String word : WORDS) {
+            assertArrayEquals(expectedIndex.positions(word), actualIndex.positions(word));
+            assertArrayEquals(expectedIndex.offsets(word), actualIndex.offsets(word));
+        }
+        for (int i = 0; i < expected.getTopWords().size(); i++) {
+            assertEquals(expected.getTopWords().get(i).getWord(), actual.getTopWords().get(i).getWord());
+        }
+    }
+
+    @Test
+    void testResultIsNotChangedByLaterUpdates() {
+        AnalysisResult first = analyzer.update("hello world helo", OPTIONS);
+        analyzer.update("java java hello", OPTIONS);
+
+        assertEquals(3, first.getTotalWords());
+        assertEquals(1, first.getFrequency("helo"));
+        assertEquals(0, first.getFrequency("java"));
+        assertEquals(1, first.getErrorOccurrences("helo"));
+        assertNotNull(first.getSpellingErrors().get("helo"));
+        assertArrayEquals(new int[] {2}, first.getIndex().positions("helo"));
+        assertArrayEquals(new int[] {0}, first.getIndex().positions("hello"));
+
+        // Изменение полученных копий не затрагивает результат
+        first.getCounts().put("helo", 100);
+        first.getSpellingErrors().remove("helo");
+        assertEquals(1, first.getFrequency("helo"));
+        assertEquals(1, first.getSpellingErrorCount());
+        assertThrows(UnsupportedOperationException.class,
+                () -> first.getSortedSpellingErrors().get(0).getSuggestions().add("x"));
+    }
+
+    @Test
+    void testSearchWithoutResult() {
+        analyzer.apply("hello world hello", OPTIONS);
+        assertArrayEquals(new int[] {0, 2}, analyzer.positions("Hello"));
+        assertEquals(6, analyzer.firstOffset("world"));
+
+        analyzer.apply("java hello world hello", OPTIONS);
+        assertArrayEquals(new int[] {1, 3}, analyzer.positions("hello"));
+        assertEquals(11, analyzer.firstOffset("world"));
+        assertEquals(-1, analyzer.firstOffset("helo"));
+        assertSameAsFullAnalysis("java hello world hello", analyzer.update("java hello world hello", OPTIONS));
+    }
+
+    @Test
+    void testSmallEdits() {
+        String text = "hello world helo java";
+        assertSameAsFullAnalysis(text, analyzer.update(text, OPTIONS));
+
+        // Исправление слова
+        text = "hello world hello java";
+        assertSameAsFullAnalysis(text, analyzer.update(text, OPTIONS));
+
+        // Разделение слова пробелом и склейка обратно
+        text = "hello wor ld hello java";
+        assertSameAsFullAnalysis(text, analyzer.update(text, OPTIONS));
+        text = "hello world hello java";
+        assertSameAsFullAnalysis(text, analyzer.update(text, OPTIONS));
+
+        // Удаление всего текста
+        assertSameAsFullAnalysis("", analyzer.update("", OPTIONS));
+    }
+
+    @Test
+    void testRandomEditsMatchFullAnalysis() {
+        Random random = new Random(11);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(5) == 0 ? "\n" : " ");
+        }
+        String text = sb.toString();
+        analyzer.update(text, OPTIONS);
+
+        for (int step = 0; step < 200; step++) {
+            StringBuilder edited = new StringBuilder(text);
+            int at = random.nextInt(edited.length() + 1);
+            switch (random.nextInt(3)) {
+                case 0:
+                    edited.insert(at, WORDS[random.nextInt(WORDS.length)] + (random.nextBoolean() ? " " : ""));
+                    break;
+                case 1:
+                    edited.delete(at, Math.min(edited.length(), at + random.nextInt(12)));
+                    break;
+                default:
+                    edited.insert(at, random.nextBoolean() ? " " : "x");
+            }
+            text = edited.toString();
+            assertSameAsFullAnalysis(text, analyzer.update(text, OPTIONS));
+        }
+    }
+}
@@ -1,11 +1,25 @@
 package com.chebotarev.textanalyzer.service;
 
+import com.chebotarev.textanalyzer.model.AnalysisOptions;
+import com.chebotarev.textanalyzer.model.AnalysisResult;
+import com.chebotarev.textanalyzer.model.SpellingError;
 import com.chebotarev.textanalyzer.model.WordFrequency;
+import com.chebotarev.textanalyzer.util.CandidateSuggestionEngine;
 import com.chebotarev.textanalyzer.util.CustomHashMap;
+import com.chebotarev.textanalyzer.util.DictionaryLookup;
+import com.chebotarev.textanalyzer.util.ObjectIntHashMap;
+import com.chebotarev.textanalyzer.util.SpellChecker;
+import com.chebotarev.textanalyzer.util.WordIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -117,6 +131,43 @@ class TextAnalysisServiceTest {
         assertEquals("cherry", sorted.get(2).getWord());
     }
 
+    @Test
+    void testTopKMatchesFullSort() {
+        // Второй размер превышает порог параллельного отбора
+        for (int size : new int[]{5_000, 300_000}) {
+            CustomHashMap<String, Integer> frequencyMap = new CustomHashMap<>();
+            Random random = new Random(3);
+            for (int i = 0; i < size; i++) {
+                // Много одинаковых частот, чтобы проверить порядок при равенстве
+                frequencyMap.put("w" + i, random.nextInt(50));
+            }
+
+            List<WordFrequency> sorted = service.sortByFrequency(frequencyMap);
+            List<WordFrequency> top = service.topK(frequencyMap, 25);
+
+            assertEquals(25, top.size());
+            for (int i = 0; i < top.size(); i++) {
+                assertEquals(sorted.get(i).getWord(), top.get(i).getWord());
+                assertEquals(sorted.get(i).getFrequency(), top.get(i).getFrequency());
+            }
+            assertTrue(service.topK(frequencyMap, 0).isEmpty());
+        }
+    }
+
+    @Test
+    void testTopKLargerThanMap() {
+        CustomHashMap<String, Integer> frequencyMap = new CustomHashMap<>();
+        frequencyMap.put("b", 2);
+        frequencyMap.put("a", 2);
+        frequencyMap.put("c", 5);
+
+        List<WordFrequency> top = service.topK(frequencyMap, 10);
+        assertEquals(3, top.size());
+        assertEquals("c", top.get(0).getWord());
+        assertEquals("a", top.get(1).getWord());
+        assertEquals("b", top.get(2).getWord());
+    }
+
     @Test
     void testCheckSpelling() {
         String text = "helo javva testing xyz";
@@ -142,11 +193,128 @@ class TextAnalysisServiceTest {
         assertEquals(List.of(0, 2, 4, 5), positions);
     }
 
+    @Test
+    void testFindWordPositionsIgnoresLeadingWhitespace() {
+        List<Integer> positions = service.findWordPositions("  Hello, world... hello!", "hello");
+        assertEquals(List.of(0, 2), positions);
+    }
+
     @Test
     void testFindWordPositionsNotFound() {
         List<Integer> positions = service.findWordPositions("hello world", "nonexistent");
         assertTrue(positions.isEmpty());
     }
+    @Test
+    void testAnalyzeMatchesSeparateMethods() {
+        String text = "Hello world, helo java! hello javva 42 testing.";
+        AnalysisResult result = service.analyze(text, AnalysisOptions.defaults().withPositions(true));
+
+        assertEquals(service.countTotalWords(text), result.getTotalWords());
+
+        CustomHashMap<String, Integer> expected = service.countWords(text);
+        assertEquals(expected.size(), result.getUniqueWords());
+        for (var entry : expected.entries()) {
+            assertEquals((int) entry.value, result.getFrequency(entry.key));
+        }
+        assertEquals("hello", result.getTopWords().get(0).getWord());
+
+        assertTrue(result.isSpellingChecked());
+        assertEquals(service.checkSpelling(text).size(), result.getSpellingErrors().size());
+        assertNotNull(result.getSpellingErrors().get("javva"));
+
+        assertEquals(service.findWordPositions(text, "hello"), result.getPositions("Hello"));
+    }
+
+    @Test
+    void testAnalyzeWithoutSpelling() {
+        AnalysisResult result = service.analyze("helo world", AnalysisOptions.defaults().withSpelling(false));
+        assertFalse(result.isSpellingChecked());
+        assertFalse(result.hasPositions());
+        assertEquals(2, result.getTotalWords());
+    }
+
+    @Test
+    void testResultCopiesConstructorArguments() {
+        ObjectIntHashMap<String> counts = new ObjectIntHashMap<>();
+        counts.put("helo", 2);
+        List<String> suggestions = new ArrayList<>(List.of("hello"));
+        CustomHashMap<String, List<String>> errors = new CustomHashMap<>();
+        errors.put("helo", suggestions);
+        ObjectIntHashMap<String> errorCounts = counts.copy();
+        WordIndex index = WordIndex.build("helo helo");
+        AnalysisResult result = new AnalysisResult(2, counts, List.of(), errors, errorCounts, index);
+
+        // Изменение переданных таблиц не затрагивает результат
+        counts.put("helo", 5);
+        errorCounts.put("helo", 5);
+        errors.remove("helo");
+        suggestions.add("help");
+        index.shift(0, 1, 1);
+
+        assertEquals(2, result.getFrequency("helo"));
+        assertEquals(2, result.getErrorOccurrences("helo"));
+        assertEquals(List.of("hello"), result.getSpellingErrors().get("helo"));
+        assertEquals(List.of(0, 1), result.getPositions("helo"));
+        assertThrows(UnsupportedOperationException.class, () -> result.getSpellingErrors().get("helo").add("x"));
+    }
+
+    @Test
+    void testStreamingAnalyzeMatchesInMemory() throws IOException {
+        String text = "Hello world, helo java! hello javva 42 testing. Привет мир привет";
+        AnalysisResult expected = service.analyze(text, AnalysisOptions.defaults().withPositions(true));
+
+        // Читатель отдаёт по 3 символа, чтобы слова разрывались границами порций
+        Reader slowReader = new Reader() {
+            private final Reader delegate = new StringReader(text);
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return delegate.read(buffer, offset, Math.min(3, length));
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+        };
+        AnalysisResult streamed = service.analyze(slowReader, AnalysisOptions.defaults().withPositions(true));
+
+        assertEquals(expected.getTotalWords(), streamed.getTotalWords());
+        assertEquals(expected.getUniqueWords(), streamed.getUniqueWords());
+        for (var entry : expected.getFrequencies().entries()) {
+            assertEquals((int) entry.value, streamed.getFrequency(entry.key));
+        }
+        assertEquals(expected.getSpellingErrors().size(), streamed.getSpellingErrors().size());
+        assertEquals(expected.getPositions("привет"), streamed.getPositions("привет"));
+    }
+
+    @Test
+    void testParallelAnalyzeMatchesSequential() {
+        StringBuilder sb = new StringBuilder();
+        Random random = new Random(7);
+        String[] vocabulary = {"hello", "world", "helo", "Javva", "привет", "don't", "word42", "..."};
+        for (int i = 0; i < 50_000; i++) {
+            sb.append(vocabulary[random.nextInt(vocabulary.length)]).append(i % 7 == 0 ? "\n" : " ");
+        }
+        String text = sb.toString();
+
+        AnalysisResult sequential = service.analyze(text, AnalysisOptions.defaults());
+        // Маленький размер фрагмента заставляет делить текст на много частей
+        AnalysisResult parallel = service.analyze(text,
+                AnalysisOptions.defaults().withParallelism(4).withMinSplitSize(1000));
+
+        assertEquals(sequential.getTotalWords(), parallel.getTotalWords());
+        assertEquals(sequential.getUniqueWords(), parallel.getUniqueWords());
+        for (var entry : sequential.getFrequencies().entries()) {
+            assertEquals((int) entry.value, parallel.getFrequency(entry.key));
+        }
+        assertEquals(sequential.getSpellingErrors().size(), parallel.getSpellingErrors().size());
+
+        CustomHashMap<String, Integer> counted = service.countWordsParallel(text, 3, 500);
+        assertEquals(sequential.getUniqueWords(), counted.size());
+        assertEquals(sequential.getFrequencies().get("hello"), counted.get("hello"));
+    }
+
     @Test
     void testLargeTextProcessing() {
         // Создаём большой текст (1 000 000 слов)
@@ -219,4 +387,60 @@ class TextAnalysisServiceTest {
         List<Integer> emptyPositions = service.findWordPositions("", "word");
         assertTrue(emptyPositions.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSpellingErrorsCarryOccurrences() {
+        String text = "javva helo javva Javva worlld helo javva";
+        List<SpellingError> errors = service.findSpellingErrors(text);
+
+        // Самые частые ошибки первыми, при равенстве - по алфавиту
+        assertEquals(3, errors.size());
+        assertEquals("javva", errors.get(0).getWord());
+        assertEquals(4, errors.get(0).getOccurrences());
+        assertTrue(errors.get(0).getSuggestions().contains("java"));
+        assertEquals("helo", errors.get(1).getWord());
+        assertEquals(2, errors.get(1).getOccurrences());
+        assertEquals("worlld", errors.get(2).getWord());
+        assertEquals(1, errors.get(2).getOccurrences());
+
+        AnalysisResult result = service.analyze(text, AnalysisOptions.defaults());
+        assertEquals(4, result.getErrorOccurrences("javva"));
+        assertEquals(0, result.getErrorOccurrences("hello"));
+        List<SpellingError> sorted = result.getSortedSpellingErrors();
+        assertEquals("javva", sorted.get(0).getWord());
+        assertEquals(4, sorted.get(0).getOccurrences());
+    }
+
+    @Test
+    void testSuggestionsComputedOncePerDistinctWord() {
+        CustomHashMap<String, Boolean> dictionary = new CustomHashMap<>();
+        dictionary.put("hello", true);
+        dictionary.put("world", true);
+        DictionaryLookup lookup = DictionaryLookup.of(dictionary);
+        CandidateSuggestionEngine engine = new CandidateSuggestionEngine(lookup);
+        AtomicInteger calls = new AtomicInteger();
+        // Кэш отключён: считаются именно вызовы из анализа
+        TextAnalysisService counting = new TextAnalysisService(new SpellChecker(lookup, word -> {
+            calls.incrementAndGet();
+            return engine.suggest(word);
+        }, 0));
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("helo wrld hello misspelt").append(i % 40).append(' ');
+        }
+        String text = sb.toString();
+
+        // Ошибки: helo, wrld и 40 вариантов "misspelt" (буквенная часть одна) = 3 различных слова
+        AnalysisResult parallel = counting.analyze(text,
+                AnalysisOptions.defaults().withParallelism(4).withMinSplitSize(1000));
+        assertEquals(3, parallel.getSpellingErrors().size());
+        assertEquals(5000, parallel.getErrorOccurrences("helo"));
+        assertEquals(5000, parallel.getErrorOccurrences("misspelt"));
+        assertEquals(3, calls.get());
+
+        calls.set(0);
+        assertEquals(3, counting.checkSpelling(text).size());
+        assertEquals(3, calls.get());
+    }
+}
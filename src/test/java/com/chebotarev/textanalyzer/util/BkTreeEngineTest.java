@@ -0,0 +1,97 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BkTreeEngineTest {
+
+    private static DictionaryLookup dictionary(List<String> words) {
+        CustomHashMap<String, Boolean> map = new CustomHashMap<>();
+        for (String word : words) {
+            map.put(word, true);
+        }
+        return DictionaryLookup.of(map);
+    }
+
+    @Test
+    void testFullDamerauLevenshtein() {
+        assertEquals(0, EditDistance.fullDamerauLevenshtein("test", "test"));
+        assertEquals(1, EditDistance.fullDamerauLevenshtein("test", "tset"));
+        assertEquals(4, EditDistance.fullDamerauLevenshtein("", "test"));
+        assertEquals(3, EditDistance.fullDamerauLevenshtein("kitten", "sitting"));
+        // Перестановка с последующей вставкой: в ограниченном варианте это 3 правки
+        assertEquals(2, EditDistance.fullDamerauLevenshtein("ca", "abc"));
+        assertEquals(3, EditDistance.damerauLevenshtein("ca", "abc", 3));
+    }
+
+    @Test
+    void testSuggestionsOrderedAndLimited() {
+        DictionaryLookup lookup = dictionary(List.of("hello", "help", "hell", "shell", "world", "jelly"));
+        BkTreeEngine engine = new BkTreeEngine(lookup, 2, 3);
+
+        assertEquals(6, engine.size());
+        // hell, hello, help - на расстоянии 1; shell (2) не входит в лимит, jelly (3) дальше maxDistance
+        assertEquals(List.of("hell", "hello", "help"), engine.suggest("helo"));
+        assertEquals(List.of("hell", "hello", "help", "shell"), engine.suggest("helo", 2, 10));
+        assertEquals(List.of("hell", "hello", "help"), engine.suggest("helo", 1, 10));
+        assertTrue(engine.suggest("qqqqqqq").isEmpty());
+    }
+
+    @Test
+    void testSelectableInSpellChecker() {
+        DictionaryLookup lookup = dictionary(List.of("hello", "world", "java"));
+        SpellChecker checker = new SpellChecker(lookup, new BkTreeEngine(lookup));
+
+        assertTrue(checker.getSuggestions("java").isEmpty());
+        assertEquals(List.of("java"), checker.getSuggestions("JVAAA"));
+    }
+
+    @Test
+    void testMatchesFullScanAndPrunes() {
+        Random random = new Random(11);
+        List<String> words = new ArrayList<>();
+        CustomHashMap<String, Boolean> map = new CustomHashMap<>();
+        while (map.size() < 5000) {
+            String word = randomWord(random, 4 + random.nextInt(8));
+            if (map.get(word) == null) {
+                map.put(word, true);
+                words.add(word);
+            }
+        }
+        BkTreeEngine engine = new BkTreeEngine(DictionaryLookup.of(map), 1, Integer.MAX_VALUE);
+
+        long visited = 0;
+        for (int i = 0; i < 200; i++) {
+            String query = randomWord(random, 4 + random.nextInt(8));
+            List<String> expected = new ArrayList<>();
+            for (int distance = 0; distance <= 1; distance++) {
+                List<String> atDistance = new ArrayList<>();
+                for (String word : words) {
+                    if (EditDistance.fullDamerauLevenshtein(query, word) == distance) {
+                        atDistance.add(word);
+                    }
+                }
+                atDistance.sort(null);
+                expected.addAll(atDistance);
+            }
+            assertEquals(expected, engine.suggest(query), "query " + query);
+            visited += engine.nodesVisited(query);
+        }
+        // Отсечение поддеревьев: проверяется заметно меньше узлов, чем слов в словаре
+        System.out.println("BK-tree: " + visited / 200 + " of " + words.size() + " nodes visited per query");
+        assertTrue(visited / 200 < words.size() / 2, "visited per query: " + visited / 200);
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(8)));
+        }
+        return sb.toString();
+    }
+}
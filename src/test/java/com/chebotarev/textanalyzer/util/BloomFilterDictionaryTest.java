@@ -0,0 +1,128 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterDictionaryTest {
+
+    private static CustomHashMap<String, Boolean> randomDictionary(Random random, int size) {
+        CustomHashMap<String, Boolean> map = new CustomHashMap<>(size);
+        while (map.size() < size) {
+            map.put(randomWord(random, 5 + random.nextInt(6)), true);
+        }
+        return map;
+    }
+
+    @Test
+    void testNoFalseNegatives() {
+        CustomHashMap<String, Boolean> map = randomDictionary(new Random(1), 20_000);
+        BloomFilterDictionary filter = BloomFilterDictionary.withFalsePositiveRate(DictionaryLookup.of(map), 0.01);
+
+        assertEquals(20_000, filter.size());
+        map.forEach((word, value) -> {
+            assertTrue(filter.contains(word));
+            char[] chars = word.toCharArray();
+            assertTrue(filter.contains(chars, 0, chars.length, word.hashCode()));
+        });
+        assertFalse(filter.contains("отсутствует"));
+    }
+
+    @Test
+    void testFalsePositiveRate() {
+        Random random = new Random(2);
+        CustomHashMap<String, Boolean> map = randomDictionary(random, 50_000);
+        for (double target : new double[]{0.05, 0.01, 0.001}) {
+            BloomFilterDictionary filter = BloomFilterDictionary.withFalsePositiveRate(DictionaryLookup.of(map), target);
+            int probes = 200_000;
+            int falsePositives = 0;
+            for (int i = 0; i < probes; i++) {
+                // Слова длиннее словарных: заведомо отсутствуют
+                // Фильтр пропустил к словарю слово, которого там нет
+                if (filter.mightContain(randomWord(random, 12).hashCode())) {
+                    falsePositives++;
+                }
+            }
+            double rate = (double) falsePositives / probes;
+            System.out.printf("Bloom filter: target %.3f, expected %.4f, measured %.4f, %d KB for %d words%n",
+                    target, filter.expectedFalsePositiveRate(), rate, filter.sizeInBytes() / 1024, filter.size());
+            assertTrue(rate < target * 1.5, "false positive rate " + rate + " for target " + target);
+        }
+    }
+
+    @Test
+    void testMemoryIsConfigurable() {
+        DictionaryLookup lookup = DictionaryLookup.of(randomDictionary(new Random(3), 10_000));
+        BloomFilterDictionary small = BloomFilterDictionary.withBitsPerWord(lookup, 4);
+        BloomFilterDictionary large = BloomFilterDictionary.withBitsPerWord(lookup, 16);
+
+        assertEquals(5_000, small.sizeInBytes(), 64);  // 10 000 слов * 4 бита, с округлением до блока
+        assertEquals(20_000, large.sizeInBytes(), 64);
+        assertTrue(small.getHashFunctions() < large.getHashFunctions());
+        assertTrue(small.expectedFalsePositiveRate() > large.expectedFalsePositiveRate());
+        assertThrows(IllegalArgumentException.class, () -> BloomFilterDictionary.withBitsPerWord(lookup, 0));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilterDictionary.withFalsePositiveRate(lookup, 1.0));
+    }
+
+    @Test
+    void testChangedDictionaryBypassesFilter() {
+        CustomHashMap<String, Boolean> map = new CustomHashMap<>();
+        map.put("hello", true);
+        BloomFilterDictionary filter = BloomFilterDictionary.withFalsePositiveRate(DictionaryLookup.of(map), 0.01);
+        assertFalse(filter.contains("world"));
+
+        // Слово добавлено после построения фильтра - ложного отрицания быть не должно
+        map.put("world", true);
+        assertTrue(filter.contains("world"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testCandidateCheckSpeedup() {
+        Random random = new Random(4);
+        CustomHashMap<String, Boolean> map = randomDictionary(random, 100_000);
+        DictionaryLookup plain = DictionaryLookup.of(map);
+        DictionaryLookup filtered = BloomFilterDictionary.withFalsePositiveRate(plain, 0.01);
+        List<String> misspelled = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            misspelled.add(randomWord(random, 8));
+        }
+        SuggestionEngine withoutFilter = new CandidateSuggestionEngine(plain);
+        SuggestionEngine withFilter = new CandidateSuggestionEngine(filtered);
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            int plainFound = 0;
+            for (String word : misspelled) {
+                plainFound += withoutFilter.suggest(word).size();
+            }
+            long plainMs = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            int filteredFound = 0;
+            for (String word : misspelled) {
+                filteredFound += withFilter.suggest(word).size();
+            }
+            long filteredMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(plainFound, filteredFound);
+            if (round == 2) {
+                System.out.printf("Candidate checks for %d words: %d ms without filter, %d ms with filter%n",
+                        misspelled.size(), plainMs, filteredMs);
+            }
+        }
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('а' + random.nextInt(32)));
+        }
+        return sb.toString();
+    }
+}
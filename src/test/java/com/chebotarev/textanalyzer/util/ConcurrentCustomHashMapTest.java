@@ -0,0 +1,114 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentCustomHashMapTest {
+    private static final int THREADS = 8;
+
+    // Запускает THREADS потоков одновременно, возвращает время в мс
+    private static long runThreads(Consumer<Integer> work) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                work.accept(id);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return (System.nanoTime() - begin) / 1_000_000;
+    }
+
+    @Test
+    void testConcurrentIncrements() throws InterruptedException {
+        ConcurrentCustomHashMap<String, Integer> map = new ConcurrentCustomHashMap<>();
+        runThreads(id -> {
+            for (int i = 0; i < 20_000; i++) {
+                map.increment("word" + (i % 1000));
+                char[] chars = ("word" + (i % 1000)).toCharArray();
+                map.increment(chars, 0, chars.length, CustomHashMap.hash(chars, 0, chars.length));
+            }
+        });
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(THREADS * 40, map.get("word" + i));
+        }
+    }
+
+    @Test
+    void testMergeAndCompute() {
+        ConcurrentCustomHashMap<String, Integer> map = new ConcurrentCustomHashMap<>(4);
+        assertEquals(5, map.merge("a", 5, Integer::sum));
+        assertEquals(8, map.merge("a", 3, Integer::sum));
+        assertNull(map.merge("a", 0, (old, value) -> null));
+        assertNull(map.get("a"));
+
+        assertEquals(1, map.compute("b", (key, old) -> old == null ? 1 : old + 1));
+        assertEquals(2, map.compute("b", (key, old) -> old == null ? 1 : old + 1));
+        assertNull(map.compute("b", (key, old) -> null));
+        assertTrue(map.isEmpty());
+
+        assertEquals(3, map.computeIfAbsent("c", key -> 3));
+        assertEquals(3, map.computeIfAbsent("c", key -> 100));
+        assertEquals(3, map.putIfAbsent("c", 7));
+        assertNull(map.putIfAbsent("d", 7));
+        assertEquals(7, map.toCustomHashMap().get("d"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testContentionBenchmark() throws InterruptedException {
+        // Общая таблица частот: одна блокировка на всю карту против разделённых блокировок
+        int operations = 400_000;
+        String[] words = new String[5_000];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = "word" + i;
+        }
+
+        CustomHashMap<String, Integer> locked = new CustomHashMap<>();
+        long singleLockMs = runThreads(id -> {
+            for (int i = 0; i < operations; i++) {
+                String word = words[(i * 31 + id * 7) % words.length];
+                synchronized (locked) {
+                    Integer count = locked.get(word);
+                    locked.put(word, (count == null) ? 1 : count + 1);
+                }
+            }
+        });
+
+        ConcurrentCustomHashMap<String, Integer> striped = new ConcurrentCustomHashMap<>();
+        long stripedMs = runThreads(id -> {
+            for (int i = 0; i < operations; i++) {
+                striped.increment(words[(i * 31 + id * 7) % words.length]);
+            }
+        });
+
+        System.out.printf("Contention (%d threads, %,d increments): single lock %d ms, striped %d ms%n",
+                THREADS, THREADS * operations, singleLockMs, stripedMs);
+
+        // Обе карты должны посчитать одно и то же
+        assertEquals(locked.size(), striped.size());
+        for (String word : words) {
+            assertEquals(locked.get(word), striped.get(word));
+        }
+    }
+}
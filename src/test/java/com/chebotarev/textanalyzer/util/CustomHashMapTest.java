@@ -135,6 +135,21 @@ class CustomHashMapTest {
         assertTrue(putTime < 100, "Put operations too slow: " + putTime + "ms");
         assertTrue(getTime < 100, "Get operations too slow: " + getTime + "ms");
     }
+    @Test
+    void testRemove() {
+        CustomHashMap<String, Integer> map = new CustomHashMap<>();
+        map.put("Aa", 1);  // коллизия с "BB"
+        map.put("BB", 2);
+        map.put("key", 3);
+
+        assertEquals(1, map.remove("Aa"));
+        assertNull(map.get("Aa"));
+        assertEquals(2, map.get("BB"));
+        assertNull(map.remove("Aa"));
+        assertEquals(3, map.remove("key"));
+        assertEquals(1, map.size());
+    }
+
     @Test
     void testNullKey() {
         CustomHashMap<String, Integer> map = new CustomHashMap<>();
@@ -152,4 +167,252 @@ class CustomHashMapTest {
         assertEquals(1, map.get("key"));
         assertNull(map.get("non-existent"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCharSliceLookup() {
+        CustomHashMap<String, Integer> map = new CustomHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("word" + i, i);
+        }
+        map.put("Aa", -1);
+        map.put("BB", -2);
+
+        char[] buffer = "xxword42yy".toCharArray();
+        assertEquals(42, map.get(buffer, 2, 6, CustomHashMap.hash(buffer, 2, 6)));
+        assertEquals(42, map.get(new StringBuilder("word42"), CustomHashMap.hash("word42")));
+        assertNull(map.get(buffer, 0, 6, CustomHashMap.hash(buffer, 0, 6)));
+
+        // Одинаковый хеш, разное содержимое
+        char[] bb = {'B', 'B'};
+        assertEquals("Aa".hashCode(), CustomHashMap.hash(bb, 0, 2));
+        assertEquals(-2, map.get(bb, 0, 2, CustomHashMap.hash(bb, 0, 2)));
+
+        // Найденную запись можно обновить на месте
+        map.getEntry(buffer, 2, 6, CustomHashMap.hash(buffer, 2, 6)).value++;
+        assertEquals(43, map.get("word42"));
+    }
+
+    // 2^bits разных строк из блоков "Aa"/"BB" с одинаковым hashCode()
+    private static List<String> collidingWords(int bits) {
+        List<String> words = new java.util.ArrayList<>();
+        for (int mask = 0; mask < (1 << bits); mask++) {
+            StringBuilder word = new StringBuilder();
+            for (int bit = 0; bit < bits; bit++) {
+                word.append((mask & (1 << bit)) == 0 ? "Aa" : "BB");
+            }
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    @Test
+    void testCollidingKeysAreTreeified() {
+        List<String> words = collidingWords(12);
+        CustomHashMap<String, Integer> map = new CustomHashMap<>();
+        for (int i = 0; i < words.size(); i++) {
+            map.put(words.get(i), i);
+        }
+        // Все ключи в одном бакете, он должен стать деревом
+        assertEquals(words.size(), map.size());
+        assertTrue(map.entries().get(0) instanceof CustomHashMap.TreeNode);
+
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            assertEquals(i, map.get(word));
+            char[] chars = word.toCharArray();
+            assertEquals(i, map.get(chars, 0, chars.length, CustomHashMap.hash(chars, 0, chars.length)));
+            assertEquals(i, map.get(new StringBuilder(word), word.hashCode()));
+        }
+        assertNull(map.get("AaAaAaAaAaAaAaAaAaAaAaBa"));
+
+        // Ресайз сразу в несколько раз переносит дерево целиком
+        map.ensureCapacity(1 << 16);
+        for (int i = 0; i < words.size(); i++) {
+            assertEquals(i, map.get(words.get(i)));
+        }
+
+        // Удаление половины ключей, остальные доступны
+        for (int i = 0; i < words.size(); i += 2) {
+            assertEquals(i, map.remove(words.get(i)));
+        }
+        assertEquals(words.size() / 2, map.size());
+        assertEquals(words.size() / 2, map.entries().size());
+        for (int i = 0; i < words.size(); i++) {
+            assertEquals((i % 2 == 0) ? null : Integer.valueOf(i), map.get(words.get(i)));
+        }
+    }
+
+    @Test
+    void testExtremeHashCodes() {
+        CustomHashMap<Object, String> map = new CustomHashMap<>();
+        Object min = new Object() {
+            @Override
+            public int hashCode() {
+                return Integer.MIN_VALUE;
+            }
+        };
+        map.put(min, "min");
+        map.put(null, "null");
+        map.put(0, "zero");
+        map.put("", "empty");
+        assertEquals("min", map.get(min));
+        assertEquals("null", map.get(null));
+        assertEquals("zero", map.get(0));
+        assertEquals("empty", map.get(""));
+    }
+
+    @Test
+    void testNonComparableCollisionsMatchHashMap() {
+        // Ключи без Comparable с несколькими значениями хеша, вперемешку с удалениями
+        final class Key {
+            final int id;
+
+            Key(int id) {
+                this.id = id;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof Key && ((Key) o).id == id;
+            }
+
+            @Override
+            public int hashCode() {
+                return id % 3;
+            }
+        }
+        java.util.Random random = new java.util.Random(3);
+        CustomHashMap<Key, Integer> map = new CustomHashMap<>();
+        java.util.Map<Integer, Integer> expected = new java.util.HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), map.remove(new Key(id)));
+            } else {
+                expected.put(id, i);
+                map.put(new Key(id), i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int id = 0; id < 500; id++) {
+            assertEquals(expected.get(id), map.get(new Key(id)));
+        }
+    }
+
+    @Test
+    void testIterationWithoutCopy() {
+        CustomHashMap<String, Integer> map = new CustomHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, i);
+        }
+        // Бакет-дерево тоже должен обходиться
+        for (String word : collidingWords(5)) {
+            map.put(word, -1);
+        }
+        int expectedSize = map.size();
+
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        map.forEach((key, value) -> assertTrue(seen.add(key)));
+        assertEquals(expectedSize, seen.size());
+
+        java.util.Set<String> iterated = new java.util.HashSet<>();
+        for (CustomHashMap.Entry<String, Integer> entry : map) {
+            assertTrue(iterated.add(entry.key));
+        }
+        assertEquals(seen, iterated);
+
+        // Параллельный поток по spliterator
+        long sum = java.util.stream.StreamSupport.stream(map.spliterator(), true)
+                .filter(entry -> entry.value >= 0)
+                .mapToLong(entry -> entry.value)
+                .sum();
+        assertEquals(999L * 1000 / 2, sum);
+        assertEquals(expectedSize, java.util.stream.StreamSupport.stream(map.spliterator(), true).count());
+    }
+
+    @Test
+    void testIteratorRemoveAndFailFast() {
+        CustomHashMap<Integer, Integer> map = new CustomHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        java.util.Iterator<CustomHashMap.Entry<Integer, Integer>> iterator = map.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().key % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(50, map.size());
+        assertNull(map.get(10));
+        assertEquals(11, map.get(11));
+
+        assertThrows(java.util.ConcurrentModificationException.class, () -> {
+            for (CustomHashMap.Entry<Integer, Integer> entry : map) {
+                map.put(entry.key + 1000, 0);
+            }
+        });
+    }
+
+    @Test
+    void testExpectedSizeAvoidsResize() {
+        CustomHashMap<String, Boolean> map = new CustomHashMap<>(500_000);
+        int capacity = map.getCapacity();
+        for (int i = 0; i < 500_000; i++) {
+            map.put("word" + i, true);
+        }
+        assertEquals(capacity, map.getCapacity());
+        assertEquals(500_000, map.size());
+
+        // ensureCapacity увеличивает таблицу сразу до нужного размера
+        CustomHashMap<Integer, Integer> small = new CustomHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            small.put(i, i);
+        }
+        small.ensureCapacity(100_000);
+        assertTrue(small.getCapacity() * 0.75 >= 100_000);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, small.get(i));
+        }
+    }
+
+    @Test
+    void testMergeAndCompute() {
+        CustomHashMap<String, Integer> map = new CustomHashMap<>();
+        assertEquals(1, map.merge("a", 1, Integer::sum));
+        assertEquals(3, map.merge("a", 2, Integer::sum));
+        assertNull(map.merge("a", 0, (old, value) -> null));
+        assertNull(map.get("a"));
+        assertTrue(map.isEmpty());
+
+        assertEquals(1, map.compute("b", (key, old) -> old == null ? 1 : old + 1));
+        assertEquals(2, map.compute("b", (key, old) -> old == null ? 1 : old + 1));
+        assertNull(map.compute("c", (key, old) -> null));
+        assertNull(map.get("c"));
+        assertNull(map.compute("b", (key, old) -> null));
+        assertEquals(0, map.size());
+
+        assertEquals(5, map.computeIfAbsent("hello", String::length));
+        assertEquals(5, map.computeIfAbsent("hello", key -> 100));
+    }
+
+    @Test
+    void testPutAllAndMergeAll() {
+        CustomHashMap<String, Integer> first = new CustomHashMap<>();
+        CustomHashMap<String, Integer> second = new CustomHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            first.put("w" + i, i);
+            second.put("w" + (i + 500), 1);
+        }
+
+        CustomHashMap<String, Integer> copy = new CustomHashMap<>();
+        copy.putAll(first);
+        assertEquals(1000, copy.size());
+        assertEquals(999, copy.get("w999"));
+
+        first.mergeAll(second, Integer::sum);
+        assertEquals(1500, first.size());
+        assertEquals(10, first.get("w10"));
+        assertEquals(501, first.get("w500"));
+        assertEquals(1, first.get("w1499"));
+    }
+}
@@ -0,0 +1,195 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DawgDictionaryTest {
+    private static final String[] ENDINGS = {"", "а", "у", "ом", "е", "ы", "ов", "ам", "ами", "ах"};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testContains() {
+        DawgDictionary dictionary = DawgDictionary.of(List.of("кот", "кота", "коту", "котом", "Рот", "рота", "hello"));
+
+        assertEquals(7, dictionary.size());
+        assertTrue(dictionary.contains("кот"));
+        assertTrue(dictionary.contains("котом"));
+        assertTrue(dictionary.contains("рот"));
+        assertTrue(dictionary.contains("hello"));
+        assertFalse(dictionary.contains("ко"));     // префикс слова - не слово
+        assertFalse(dictionary.contains("котами"));
+        assertFalse(dictionary.contains("роту"));
+        assertFalse(dictionary.contains(""));
+
+        char[] text = "мой кот спит".toCharArray();
+        assertTrue(dictionary.contains(text, 4, 3, CustomHashMap.hash(text, 4, 3)));
+        assertFalse(dictionary.contains(text, 0, 3, CustomHashMap.hash(text, 0, 3)));
+    }
+
+    @Test
+    void testSharesPrefixesAndSuffixes() {
+        // Одинаковые наборы окончаний у разных основ сливаются в общие состояния
+        List<String> words = new ArrayList<>();
+        for (String stem : new String[]{"стол", "слон", "сон", "дом", "кот"}) {
+            for (String ending : ENDINGS) {
+                words.add(stem + ending);
+            }
+        }
+        DawgDictionary dictionary = DawgDictionary.of(words);
+        assertEquals(words.size(), dictionary.size());
+        // В префиксном дереве одних только окончаний было бы 5 * 13 дуг
+        assertTrue(dictionary.arcCount() < 40, "arcs: " + dictionary.arcCount());
+
+        List<String> listed = new ArrayList<>();
+        dictionary.forEachWord(listed::add);
+        assertEquals(new ArrayList<>(new TreeSet<>(words)), listed); // по алфавиту, без повторов
+    }
+
+    @Test
+    void testBuilderIsSingleUse() {
+        DawgDictionary.Builder builder = DawgDictionary.builder().add("тест").add("тест").add("");
+        assertEquals(1, builder.build().size());
+        assertThrows(IllegalStateException.class, () -> builder.add("ещё"));
+        assertEquals(0, DawgDictionary.builder().build().size());
+    }
+
+    @Test
+    void testWriteAndMap() throws IOException {
+        Path text = tempDir.resolve("dictionary.txt");
+        Files.write(text, List.of("Привет", "мир", "", "  слово  ", "мир"), StandardCharsets.UTF_8);
+        DawgDictionary built = DawgDictionary.load(text);
+        Path binary = tempDir.resolve("dictionary.dawg");
+        built.write(binary);
+
+        DawgDictionary mapped = DawgDictionary.map(binary);
+        assertEquals(3, mapped.size());
+        assertEquals(built.sizeInBytes(), Files.size(binary));
+        assertTrue(mapped.contains("привет"));
+        assertTrue(mapped.contains("слово"));
+        assertFalse(mapped.contains("миры"));
+
+        assertThrows(IOException.class, () -> DawgDictionary.map(text));
+
+        // Перезапись заменяет файл целиком: уже отображённый автомат не меняется, временных файлов не остаётся
+        DawgDictionary.of(List.of("кот")).write(binary);
+        assertTrue(mapped.contains("привет"));
+        assertEquals(1, DawgDictionary.map(binary).size());
+        assertEquals(tempDir.resolve("dictionary.txt.dawg"), DawgDictionary.defaultPath(text));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    // Копия файла автомата с изменённым int по смещению offset
+    private Path corrupt(Path binary, String name, int offset, int value) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(binary));
+        bytes.putInt(offset, value);
+        Path copy = tempDir.resolve(name);
+        Files.write(copy, bytes.array());
+        return copy;
+    }
+
+    @Test
+    void testCorruptFilesAreRejected() throws IOException {
+        Path binary = tempDir.resolve("small.dawg");
+        DawgDictionary.of(List.of("кот", "кота", "рот")).write(binary);
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(binary));
+        int arcs = header.getInt(12);
+        int firstArc = header.getInt(20);
+        int lastArc = header.getInt(20 + (arcs - 1) * 4);
+        assertEquals(3, DawgDictionary.map(binary).size());
+
+        // Обрезанный файл и число дуг, при котором размер в int переполняется
+        byte[] bytes = Files.readAllBytes(binary);
+        Path truncated = tempDir.resolve("truncated.dawg");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 2));
+        assertThrows(IOException.class, () -> DawgDictionary.map(truncated));
+        assertThrows(IOException.class, () -> DawgDictionary.map(corrupt(binary, "overflow.dawg", 12, 0x2AAAAAAB)));
+        assertThrows(IOException.class, () -> DawgDictionary.map(corrupt(binary, "size.dawg", 8, -1)));
+
+        // Корень и цель дуги за пределами массива дуг
+        assertThrows(IOException.class, () -> DawgDictionary.map(corrupt(binary, "root.dawg", 16, arcs)));
+        assertThrows(IOException.class, () -> DawgDictionary.map(
+                corrupt(binary, "target.dawg", 20, (firstArc & ~0x3FFFFFFF) | arcs)));
+        // Последняя дуга без признака LAST и цикл на корень
+        assertThrows(IOException.class, () -> DawgDictionary.map(
+                corrupt(binary, "unterminated.dawg", 20 + (arcs - 1) * 4, lastArc & 0x7FFFFFFF)));
+        IOException cycle = assertThrows(IOException.class, () -> DawgDictionary.map(
+                corrupt(binary, "cycle.dawg", 20 + (arcs - 1) * 4, (lastArc & ~0x3FFFFFFF) | 0)));
+        assertTrue(cycle.getMessage().contains("cycle"), cycle.getMessage());
+    }
+
+    @Test
+    void testSuggestionsMatchFullScan() {
+        Random random = new Random(3);
+        TreeSet<String> words = new TreeSet<>();
+        while (words.size() < 1000) {
+            words.add(randomWord(random, 2 + random.nextInt(9)));
+        }
+        DawgDictionary dictionary = DawgDictionary.of(words);
+
+        for (int i = 0; i < 300; i++) {
+            String query = randomWord(random, 1 + random.nextInt(10));
+            List<String> expected = new ArrayList<>();
+            for (int distance = 0; distance <= 2; distance++) {
+                for (String word : words) { // TreeSet - уже по алфавиту
+                    if (EditDistance.damerauLevenshtein(query, word, 2) == distance) {
+                        expected.add(word);
+                    }
+                }
+            }
+            assertEquals(expected, dictionary.suggest(query, 2, Integer.MAX_VALUE), "query " + query);
+        }
+    }
+
+    @Test
+    void testSelectableInSpellChecker() {
+        DawgDictionary dictionary = DawgDictionary.of(List.of("привет", "пример", "мир"));
+        SpellChecker checker = new SpellChecker(dictionary, dictionary.suggestionEngine(2, 1));
+
+        assertTrue(checker.isCorrect("Привет"));
+        assertFalse(checker.isCorrect("првиет"));
+        assertEquals(List.of("привет"), checker.getSuggestions("првиет"));
+        assertEquals(List.of("пример"), checker.getSuggestions("примр"));
+    }
+
+    @Test
+    void testInflectedLexiconSize() {
+        Random random = new Random(5);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String stem = randomWord(random, 4 + random.nextInt(5));
+            for (String ending : ENDINGS) {
+                words.add(stem + ending);
+            }
+        }
+        DawgDictionary dictionary = DawgDictionary.of(words);
+        System.out.printf("DAWG: %d words, %d arcs, %d bytes (%.1f bytes/word)%n", dictionary.size(),
+                dictionary.arcCount(), dictionary.sizeInBytes(), (double) dictionary.sizeInBytes() / dictionary.size());
+        // Каждое окончание хранится один раз на весь словарь, а не на каждую основу
+        assertTrue(dictionary.sizeInBytes() < dictionary.size() * 10);
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('а' + random.nextInt(6)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DictionarySnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private Path writeDictionary(String... words) throws IOException {
+        Path text = tempDir.resolve("words.txt");
+        Files.write(text, List.of(words), StandardCharsets.UTF_8);
+        return text;
+    }
+
+    @Test
+    void testSnapshotRoundTrip() throws IOException {
+        Path text = writeDictionary("Кот", "собака", "", "hello", "кот", "naïve", "𝒳слово");
+        OffHeapDictionary compiled = DictionarySnapshot.compile(text);
+        assertTrue(Files.exists(DictionarySnapshot.defaultPath(text)));
+
+        DictionarySnapshot.Loaded loaded = DictionarySnapshot.load(text);
+        assertTrue(loaded.isFromSnapshot());
+        assertNull(loaded.getFallbackReason());
+
+        OffHeapDictionary dictionary = loaded.getDictionary();
+        assertEquals(5, dictionary.size());
+        assertEquals(compiled.size(), dictionary.size());
+        assertTrue(dictionary.contains("кот"));
+        assertTrue(dictionary.contains("собака"));
+        assertTrue(dictionary.contains("naïve"));
+        assertTrue(dictionary.contains("𝒳слово"));
+        assertFalse(dictionary.contains("кошка"));
+        assertFalse(dictionary.contains(""));
+
+        char[] chars = "мой кот спит".toCharArray();
+        assertTrue(dictionary.contains(chars, 4, 3, CustomHashMap.hash(chars, 4, 3)));
+        assertFalse(dictionary.contains(chars, 8, 4, CustomHashMap.hash(chars, 8, 4)));
+
+        List<String> expected = new ArrayList<>();
+        compiled.forEachWord(expected::add);
+        List<String> actual = new ArrayList<>();
+        dictionary.forEachWord(actual::add);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testLargeSnapshotMatchesTextDictionary() throws IOException {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            words.add("слово" + i);
+        }
+        Path text = writeDictionary(words.toArray(new String[0]));
+        Path snapshot = tempDir.resolve("custom.bin");
+        DictionarySnapshot.compile(text, snapshot);
+
+        OffHeapDictionary mapped = DictionarySnapshot.map(snapshot, text);
+        assertEquals(words.size(), mapped.size());
+        for (String word : words) {
+            assertTrue(mapped.contains(word), word);
+        }
+        assertFalse(mapped.contains("слово20000"));
+    }
+
+    @Test
+    void testMissingSnapshotFallsBackToText() throws IOException {
+        Path text = writeDictionary("кот", "пёс");
+
+        DictionarySnapshot.Loaded loaded = DictionarySnapshot.load(text);
+        assertFalse(loaded.isFromSnapshot());
+        assertNotNull(loaded.getFallbackReason());
+        assertEquals(2, loaded.getDictionary().size());
+        assertTrue(loaded.getDictionary().contains("пёс"));
+    }
+
+    @Test
+    void testStaleSnapshotFallsBackToText() throws IOException {
+        Path text = writeDictionary("кот", "пёс");
+        DictionarySnapshot.compile(text);
+
+        // Словарь изменился после сборки снимка
+        Files.write(text, List.of("кот", "пёс", "ёж"), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(text, FileTime.fromMillis(Files.getLastModifiedTime(text).toMillis() + 5000));
+
+        DictionarySnapshot.Loaded loaded = DictionarySnapshot.load(text);
+        assertFalse(loaded.isFromSnapshot());
+        assertTrue(loaded.getFallbackReason().contains("stale"));
+        assertTrue(loaded.getDictionary().contains("ёж"));
+        assertThrows(IOException.class, () -> DictionarySnapshot.map(DictionarySnapshot.defaultPath(text), text));
+
+        // Пересобранный снимок снова используется
+        DictionarySnapshot.compile(text);
+        assertTrue(DictionarySnapshot.load(text).isFromSnapshot());
+    }
+
+    @Test
+    void testCorruptSnapshotFallsBackToText() throws IOException {
+        Path text = writeDictionary("кот", "пёс", "ёж");
+        DictionarySnapshot.compile(text);
+        Path snapshot = DictionarySnapshot.defaultPath(text);
+
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 1; // повреждён последний байт арены
+        Files.write(snapshot, bytes);
+
+        DictionarySnapshot.Loaded loaded = DictionarySnapshot.load(text);
+        assertFalse(loaded.isFromSnapshot());
+        assertTrue(loaded.getFallbackReason().contains("checksum"));
+        assertTrue(loaded.getDictionary().contains("ёж"));
+
+        Files.write(snapshot, new byte[] {1, 2, 3});
+        assertFalse(DictionarySnapshot.load(text).isFromSnapshot());
+        assertThrows(IOException.class, () -> DictionarySnapshot.map(snapshot, null));
+    }
+}
@@ -0,0 +1,108 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTextSourceTest {
+    @TempDir
+    Path tempDir;
+
+    private static List<String> mappedWords(Path file, long regionSize) throws IOException {
+        List<String> words = new ArrayList<>();
+        WordTokenizer tokenizer = new WordTokenizer(token -> words.add(token.word()));
+        MappedTextSource.feed(file, tokenizer, regionSize);
+        tokenizer.finish();
+        return words;
+    }
+
+    @Test
+    void testDecodesMultiByteAcrossRegions() throws IOException {
+        String text = "Привет, мир! Hello ёжик 🚀 日本語 word42 конец";
+        Path file = tempDir.resolve("text.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+
+        List<String> expected = new ArrayList<>();
+        WordTokenizer.tokenize(text, token -> expected.add(token.word()));
+
+        // Окна по 1-7 байт разрезают многобайтовые символы
+        for (long region = 1; region <= 7; region++) {
+            assertEquals(expected, mappedWords(file, region));
+        }
+    }
+
+    @Test
+    void testMalformedBytesAreNotLetters() throws IOException {
+        Path file = tempDir.resolve("broken.txt");
+        Files.write(file, new byte[]{'a', 'b', (byte) 0xD0, ' ', 'c', (byte) 0x80, 'd'});
+
+        assertEquals(List.of("ab", "cd"), mappedWords(file, 1024));
+    }
+
+    private static List<String> jdkWords(byte[] bytes) {
+        List<String> words = new ArrayList<>();
+        WordTokenizer.tokenize(new String(bytes, StandardCharsets.UTF_8), token -> words.add(token.word()));
+        return words;
+    }
+
+    @Test
+    void testInvalidSequencesAreReplacedLikeJdk() throws IOException {
+        int[][] invalid = {
+                {0xC0, 0xAF},                   // избыточная форма '/'
+                {0xE0, 0x90, 0xB0},             // избыточная форма 'а'
+                {0xF0, 0x80, 0x90, 0xB0},       // избыточная форма 'а'
+                {0xED, 0xA0, 0xB5, 0xED, 0xB3, 0xB3}, // суррогатная пара 𝒳 в виде CESU-8
+                {0xF4, 0x90, 0x80, 0x80},       // U+110000
+                {0xF5, 0x80, 0x80, 0x80},
+                {0xE2, 0x82},                   // оборванная последовательность
+                {0xF0, 0x9F, 0x9A},
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int[] sequence : invalid) {
+            out.writeBytes("слово".getBytes(StandardCharsets.UTF_8));
+            for (int b : sequence) {
+                out.write(b);
+            }
+            out.write(' ');
+        }
+        out.writeBytes("конец".getBytes(StandardCharsets.UTF_8));
+        byte[] bytes = out.toByteArray();
+        Path file = tempDir.resolve("invalid.txt");
+        Files.write(file, bytes);
+
+        List<String> expected = jdkWords(bytes);
+        // Ни одна из последовательностей не превращается в букву
+        assertEquals(invalid.length + 1, expected.size());
+        assertEquals("слово", expected.get(0));
+        for (long region = 1; region <= 7; region++) {
+            assertEquals(expected, mappedWords(file, region));
+        }
+    }
+
+    @Test
+    void testRandomBytesMatchJdk() throws IOException {
+        Random random = new Random(42);
+        Path file = tempDir.resolve("random.txt");
+        byte[] letters = "жA".getBytes(StandardCharsets.UTF_8);
+        for (int round = 0; round < 200; round++) {
+            byte[] bytes = new byte[64];
+            random.nextBytes(bytes);
+            // Буквы между случайными байтами делают лишние и пропущенные символы заметными
+            for (int i = 0; i < bytes.length; i += 4 + random.nextInt(4)) {
+                bytes[i] = letters[random.nextInt(letters.length)];
+            }
+            Files.write(file, bytes);
+            assertEquals(jdkWords(bytes), mappedWords(file, 1 + random.nextInt(8)), "round " + round);
+        }
+    }
+}
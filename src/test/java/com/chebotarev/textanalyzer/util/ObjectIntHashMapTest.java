@@ -0,0 +1,137 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectIntHashMapTest {
+    @Test
+    void testIncrementAndAddTo() {
+        ObjectIntHashMap<String> map = new ObjectIntHashMap<>();
+        assertEquals(1, map.increment("hello"));
+        assertEquals(2, map.increment("hello"));
+        assertEquals(12, map.addTo("hello", 10));
+        assertEquals(-3, map.addTo("world", -3));
+
+        assertEquals(12, map.get("hello"));
+        assertEquals(0, map.get("missing"));
+        assertTrue(map.containsKey("world"));
+        assertFalse(map.containsKey("missing"));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testCharSliceIncrement() {
+        ObjectIntHashMap<String> map = new ObjectIntHashMap<>();
+        char[] buffer = "xxwordyy".toCharArray();
+        int hash = CustomHashMap.hash(buffer, 2, 4);
+        map.increment(buffer, 2, 4, hash);
+        map.increment("word");
+        assertEquals(2, map.get(buffer, 2, 4, hash));
+        assertEquals(2, map.get("word"));
+        assertEquals(1, map.size());
+
+        // Одинаковый хеш, разное содержимое
+        map.put("Aa", 1);
+        char[] bb = {'B', 'B'};
+        assertEquals(1, map.increment(bb, 0, 2, CustomHashMap.hash(bb, 0, 2)));
+        assertEquals(1, map.get("Aa"));
+    }
+
+    @Test
+    void testMatchesHashMapWithRemovals() {
+        // Случайные вставки и удаления, включая сдвиг цепочек пробирования
+        Random random = new Random(7);
+        ObjectIntHashMap<String> map = new ObjectIntHashMap<>();
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            String key = "k" + random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                Integer old = expected.remove(key);
+                assertEquals(old == null ? 0 : old, map.remove(key));
+            } else {
+                expected.merge(key, 1, Integer::sum);
+                map.increment(key);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        int[] seen = new int[1];
+        map.forEach((key, value) -> {
+            assertEquals(expected.get(key), value);
+            seen[0]++;
+        });
+        assertEquals(expected.size(), seen[0]);
+    }
+
+    @Test
+    void testToCustomHashMap() {
+        ObjectIntHashMap<String> map = new ObjectIntHashMap<>(1000);
+        int capacity = map.capacity();
+        for (int i = 0; i < 1000; i++) {
+            map.addTo("w" + i, i);
+        }
+        // Предварительный размер исключает перестроение
+        assertEquals(capacity, map.capacity());
+
+        CustomHashMap<String, Integer> boxed = map.toCustomHashMap();
+        assertEquals(1000, boxed.size());
+        assertEquals(999, boxed.get("w999"));
+    }
+
+    @Test
+    void testCollidingKeys() {
+        // "ба" и "ая" дают одинаковый String.hashCode, поэтому все 2^14 склеек сталкиваются
+        assertEquals("ба".hashCode(), "ая".hashCode());
+        String[] keys = new String[1 << 14];
+        for (int k = 0; k < keys.length; k++) {
+            StringBuilder sb = new StringBuilder();
+            for (int bit = 13; bit >= 0; bit--) {
+                sb.append(((k >>> bit) & 1) == 0 ? "ба" : "ая");
+            }
+            keys[k] = sb.toString();
+            assertEquals(keys[0].hashCode(), keys[k].hashCode());
+        }
+
+        ObjectIntHashMap<String> map = new ObjectIntHashMap<>();
+        long start = System.nanoTime();
+        for (int k = 0; k < keys.length; k++) {
+            map.addTo(keys[k], k);
+            char[] chars = keys[k].toCharArray();
+            map.increment(chars, 0, chars.length, keys[k].hashCode());
+        }
+        assertTrue(map.isSeeded());
+        assertEquals(keys.length, map.size());
+        for (int k = 0; k < keys.length; k++) {
+            assertEquals(k + 1, map.get(keys[k]));
+            char[] chars = ("." + keys[k]).toCharArray();
+            assertEquals(k + 1, map.get(chars, 1, keys[k].length(), keys[k].hashCode()));
+        }
+        assertFalse(map.containsKey("ба"));
+        for (int k = 0; k < keys.length; k += 2) {
+            assertEquals(k + 1, map.remove(keys[k]));
+        }
+        assertEquals(keys.length / 2, map.size());
+        for (int k = 0; k < keys.length; k++) {
+            assertEquals(k % 2 == 0 ? 0 : k + 1, map.get(keys[k]));
+        }
+        // Квадратичная вставка таких ключей занимает десятки секунд
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMs < 5_000, "colliding keys took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void testOrdinaryKeysKeepStringHash() {
+        ObjectIntHashMap<String> map = new ObjectIntHashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            map.increment("слово" + i);
+        }
+        assertFalse(map.isSeeded());
+    }
+}
@@ -0,0 +1,143 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapDictionaryTest {
+    @TempDir
+    Path tempDir;
+
+    private static boolean containsSlice(DictionaryLookup dictionary, String word) {
+        char[] chars = ("__" + word + "__").toCharArray();
+        return dictionary.contains(chars, 2, word.length(), CustomHashMap.hash(chars, 2, word.length()));
+    }
+
+    @Test
+    void testLookupMatchesHashMap() {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            words.add("слово" + i);
+            words.add("word" + i);
+        }
+        words.add("ёжик");
+        words.add("日本語");
+        words.add("🚀rocket");
+        words.add("word1"); // повтор
+
+        OffHeapDictionary dictionary = OffHeapDictionary.of(words);
+        assertEquals(100_003, dictionary.size());
+        for (String word : List.of("слово0", "word49999", "ёжик", "日本語", "🚀rocket")) {
+            assertTrue(dictionary.contains(word), word);
+            assertTrue(containsSlice(dictionary, word), word);
+        }
+        for (String word : List.of("слово", "word50000", "ёжи", "ёжикк", "🚀rockets", "", "Aa")) {
+            assertFalse(dictionary.contains(word), word);
+            assertFalse(containsSlice(dictionary, word), word);
+        }
+
+        Set<String> all = new HashSet<>();
+        dictionary.forEachWord(all::add);
+        assertEquals(new HashSet<>(words), all);
+        assertTrue(dictionary.offHeapBytes() > 0);
+    }
+
+    @Test
+    void testCollidingWords() {
+        // "Aa" и "BB" имеют одинаковый hashCode()
+        OffHeapDictionary dictionary = OffHeapDictionary.builder()
+                .add("AaAa").add("BBBB").add("AaBB")
+                .build();
+        assertTrue(dictionary.contains("AaAa"));
+        assertTrue(dictionary.contains("BBBB"));
+        assertTrue(containsSlice(dictionary, "AaBB"));
+        assertFalse(dictionary.contains("BBAa"));
+        assertFalse(containsSlice(dictionary, "BBAa"));
+    }
+
+    @Test
+    void testLoadAndSpellCheck() throws IOException {
+        Path file = tempDir.resolve("dictionary.txt");
+        Files.writeString(file, "Hello\n  world \n\nпривет\nhello\n", StandardCharsets.UTF_8);
+
+        OffHeapDictionary dictionary = OffHeapDictionary.load(file);
+        assertEquals(3, dictionary.size());
+
+        SpellChecker checker = new SpellChecker(dictionary);
+        assertTrue(checker.isCorrect("HELLO"));
+        assertTrue(checker.isCorrect("Привет"));
+        assertFalse(checker.isCorrect("helo"));
+        assertTrue(checker.getSuggestions("helo").contains("hello"));
+        assertTrue(checker.getSuggestions("превет").contains("привет"));
+    }
+
+    private static List<String> wordsOf(OffHeapDictionary dictionary) {
+        List<String> words = new ArrayList<>();
+        dictionary.forEachWord(words::add);
+        return words;
+    }
+
+    @Test
+    void testParallelLoadMatchesSequential() throws IOException {
+        // Повторы, регистр, пробелы, пустые строки, \r\n и одиночные \r, суррогатные пары
+        Random random = new Random(7);
+        String[] stems = {"кот", "Собака", "hello", "naïve", "𝒳", "ёж", "WORLD"};
+        String[] separators = {"\n", "\r\n", "\r", "\n\n", "  \n\t"};
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 30_000; i++) {
+            text.append(' ').append(stems[random.nextInt(stems.length)]).append(random.nextInt(5000));
+            text.append(separators[random.nextInt(separators.length)]);
+        }
+        text.append("последнее"); // без перевода строки в конце
+        Path file = tempDir.resolve("dictionary.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+
+        OffHeapDictionary sequential = OffHeapDictionary.load(file);
+        for (int threads : new int[] {1, 2, 4, 8}) {
+            // Участки по 1 КБ: границы попадают между \r и \n и внутрь многобайтовых строк
+            OffHeapDictionary parallel = OffHeapDictionary.loadParallel(file, threads, 1024);
+            assertEquals(sequential.size(), parallel.size());
+            assertEquals(wordsOf(sequential), wordsOf(parallel));
+            sequential.forEachWord(word -> assertTrue(containsSlice(parallel, word), word));
+            assertFalse(parallel.contains("кот5000"));
+        }
+        assertEquals(wordsOf(sequential), wordsOf(OffHeapDictionary.loadParallel(file)));
+    }
+
+    @Test
+    void testParallelLoadEdgeCases() throws IOException {
+        Path empty = tempDir.resolve("empty.txt");
+        Files.writeString(empty, "");
+        assertEquals(0, OffHeapDictionary.loadParallel(empty, 4, 1).size());
+
+        Path blank = tempDir.resolve("blank.txt");
+        Files.writeString(blank, "\n \n\r\n");
+        assertEquals(0, OffHeapDictionary.loadParallel(blank, 4, 1).size());
+
+        // Некорректный UTF-8 - ошибка, как и при последовательной загрузке
+        Path broken = tempDir.resolve("broken.txt");
+        Files.write(broken, new byte[] {'o', 'k', '\n', (byte) 0xC3, '\n'});
+        assertThrows(IOException.class, () -> OffHeapDictionary.load(broken));
+        assertThrows(IOException.class, () -> OffHeapDictionary.loadParallel(broken, 2, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> OffHeapDictionary.loadParallel(empty, 0));
+    }
+
+    @Test
+    void testBuilderIsSingleUse() {
+        OffHeapDictionary.Builder builder = OffHeapDictionary.builder().add("one");
+        builder.build();
+        assertThrows(IllegalStateException.class, () -> builder.add("two"));
+    }
+}
@@ -2,7 +2,11 @@ package com.chebotarev.textanalyzer.util;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
 import static org.junit.jupiter.api.Assertions.*;
 
 class SpellCheckerTest {
@@ -55,4 +59,98 @@ class SpellCheckerTest {
         suggestions = spellChecker.getSuggestions("a");
         assertTrue(suggestions.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSubstitutionAlphabetFollowsScript() {
+        CustomHashMap<String, Boolean> dictionary = new CustomHashMap<>();
+        dictionary.put("cat", true);
+        dictionary.put("\u0441at", true); // первая буква - кириллическая "с"
+        SpellChecker checker = new SpellChecker(dictionary);
+
+        // Латинскому слову не предлагаются замены кириллическими буквами
+        assertEquals(List.of("cat"), checker.getSuggestions("bat"));
+        // В слове со смешанными буквами перебираются оба алфавита
+        assertEquals(Set.of("cat", "\u0441at"), new HashSet<>(checker.getSuggestions("\u0431at")));
+    }
+
+    @Test
+    void testCandidateHashesMatchStringHash() {
+        // Словарь, проверяющий, что хеш каждого кандидата посчитан правильно
+        CustomHashMap<String, Boolean> words = new CustomHashMap<>();
+        Random random = new Random(9);
+        String letters = "абвгдежз";
+        for (int i = 0; i < 3000; i++) {
+            words.put(randomWord(random, letters, 2 + random.nextInt(6)), true);
+        }
+        DictionaryLookup exact = DictionaryLookup.of(words);
+        int[] probes = new int[1];
+        DictionaryLookup checking = new DictionaryLookup() {
+            @Override
+            public boolean contains(CharSequence word) {
+                return exact.contains(word);
+            }
+
+            @Override
+            public boolean contains(char[] chars, int offset, int length, int hash) {
+                assertEquals(new String(chars, offset, length).hashCode(), hash);
+                probes[0]++;
+                return exact.contains(chars, offset, length, hash);
+            }
+
+            @Override
+            public int size() {
+                return exact.size();
+            }
+
+            @Override
+            public void forEachWord(Consumer<String> action) {
+                exact.forEachWord(action);
+            }
+        };
+        SpellChecker checker = new SpellChecker(checking, new CandidateSuggestionEngine(checking), 0);
+
+        for (int i = 0; i < 500; i++) {
+            String word = randomWord(random, letters, 1 + random.nextInt(7));
+            if (checker.isCorrect(word)) {
+                continue;
+            }
+            assertEquals(naiveSuggestions(word, words), new HashSet<>(checker.getSuggestions(word)), word);
+        }
+        assertTrue(probes[0] > 0);
+    }
+
+    // Те же правки на расстоянии 1 через строки - эталон для проверки
+    private static Set<String> naiveSuggestions(String word, CustomHashMap<String, Boolean> words) {
+        String alphabet = "абвгдеёжзийклмнопрстуфхцчшщъыьэюя";
+        Set<String> candidates = new HashSet<>();
+        for (int i = 0; i < word.length(); i++) {
+            for (char c : alphabet.toCharArray()) {
+                candidates.add(word.substring(0, i) + c + word.substring(i + 1));
+            }
+            candidates.add(word.substring(0, i) + word.substring(i + 1));
+            if (i < word.length() - 1) {
+                candidates.add(word.substring(0, i) + word.charAt(i + 1) + word.charAt(i) + word.substring(i + 2));
+            }
+        }
+        for (int i = 0; i <= word.length(); i++) {
+            for (char c : alphabet.toCharArray()) {
+                candidates.add(word.substring(0, i) + c + word.substring(i));
+            }
+        }
+        Set<String> found = new HashSet<>();
+        for (String candidate : candidates) {
+            if (candidate.length() >= 2 && words.get(candidate) != null) {
+                found.add(candidate);
+            }
+        }
+        return found;
+    }
+
+    private static String randomWord(Random random, String letters, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(letters.charAt(random.nextInt(letters.length())));
+        }
+        return sb.toString();
+    }
+}
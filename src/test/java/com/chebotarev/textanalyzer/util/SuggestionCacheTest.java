@@ -0,0 +1,107 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionCacheTest {
+
+    @Test
+    void testLruEviction() {
+        SuggestionCache cache = new SuggestionCache(2);
+        cache.put("aaa", List.of("a"), 0);
+        cache.put("bbb", List.of("b"), 0);
+        assertEquals(List.of("a"), cache.get("aaa", 0)); // aaa становится самым свежим
+        cache.put("ccc", List.of("c"), 0);               // вытесняется bbb
+
+        assertNull(cache.get("bbb", 0));
+        assertEquals(List.of("a"), cache.get("aaa", 0));
+        assertEquals(List.of("c"), cache.get("ccc", 0));
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void testVersionChangeInvalidates() {
+        SuggestionCache cache = new SuggestionCache(10);
+        cache.put("aaa", List.of("a"), 1);
+        assertNotNull(cache.get("aaa", 1));
+        assertNull(cache.get("aaa", 2));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getInvalidations());
+    }
+
+    @Test
+    void testSpellCheckerCachesSuggestions() {
+        AtomicInteger calls = new AtomicInteger();
+        CustomHashMap<String, Boolean> map = new CustomHashMap<>();
+        map.put("hello", true);
+        DictionaryLookup lookup = DictionaryLookup.of(map);
+        CandidateSuggestionEngine candidates = new CandidateSuggestionEngine(lookup);
+        SpellChecker checker = new SpellChecker(lookup, word -> {
+            calls.incrementAndGet();
+            return candidates.suggest(word);
+        });
+
+        assertEquals(List.of("hello"), checker.getSuggestions("helo"));
+        assertEquals(List.of("hello"), checker.getSuggestions("HELO"));
+        assertEquals(1, calls.get());
+        assertEquals(1, checker.getSuggestionCache().getHits());
+
+        // Копия списка: изменения вызывающего кода не портят кэш
+        checker.getSuggestions("helo").clear();
+        assertEquals(List.of("hello"), checker.getSuggestions("helo"));
+
+        // Изменение словаря сбрасывает кэш
+        map.put("help", true);
+        List<String> suggestions = checker.getSuggestions("helo");
+        assertTrue(suggestions.contains("help"));
+        assertEquals(2, calls.get());
+
+        SpellChecker uncached = new SpellChecker(lookup, candidates, 0);
+        assertNull(uncached.getSuggestionCache());
+        assertEquals(2, uncached.getSuggestions("helo").size());
+    }
+
+    @Test
+    void testConcurrentAccess() throws Exception {
+        SuggestionCache cache = new SuggestionCache(50);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        String word = "w" + ((i * 7 + seed) % 100);
+                        if (cache.get(word, 0) == null) {
+                            cache.put(word, List.of(word), 0);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(50, cache.size());
+        assertEquals(40_000, cache.getHits() + cache.getMisses());
+        for (int i = 0; i < 100; i++) {
+            List<String> cached = cache.get("w" + i, 0);
+            if (cached != null) {
+                assertEquals(List.of("w" + i), cached);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymSpellEngineTest {
+
+    private static DictionaryLookup dictionary(String... words) {
+        CustomHashMap<String, Boolean> map = new CustomHashMap<>();
+        for (String word : words) {
+            map.put(word, true);
+        }
+        return DictionaryLookup.of(map);
+    }
+
+    @Test
+    void testDamerauLevenshtein() {
+        assertEquals(0, EditDistance.damerauLevenshtein("test", "test", 2));
+        assertEquals(1, EditDistance.damerauLevenshtein("test", "tset", 2));
+        assertEquals(1, EditDistance.damerauLevenshtein("helo", "hello", 2));
+        assertEquals(2, EditDistance.damerauLevenshtein("progamming", "programing", 2));
+        assertEquals(3, EditDistance.damerauLevenshtein("kitten", "sitting", 2)); // больше max -> max + 1
+        assertEquals(3, EditDistance.damerauLevenshtein("", "abc", 5));
+    }
+
+    @Test
+    void testSuggestionsWithinTwoEdits() {
+        SymSpellEngine engine = new SymSpellEngine(dictionary("hello", "help", "world", "programming", "привет"));
+
+        List<String> suggestions = engine.suggest("helo");
+        // Сначала ближайшие: hello и help на расстоянии 1
+        assertEquals(List.of("hello", "help"), suggestions);
+
+        assertEquals(List.of("programming"), engine.suggest("progrmaming")); // перестановка
+        assertEquals(List.of("programming"), engine.suggest("programmnig"));
+        assertEquals(List.of("привет"), engine.suggest("пирвет"));
+        assertEquals(List.of("world"), engine.suggest("wrd"));
+        assertTrue(engine.suggest("xyzzyq").isEmpty());
+    }
+
+    @Test
+    void testLongWordsBeyondPrefix() {
+        SymSpellEngine engine = new SymSpellEngine(dictionary("internationalization", "xinternational"));
+        // Ошибки в хвосте слова, за пределами индексируемого префикса
+        assertEquals(List.of("internationalization"), engine.suggest("internationalizaton"));
+        // Вставка в начале сдвигает префикс
+        assertEquals(List.of("xinternational"), engine.suggest("international"));
+    }
+
+    @Test
+    void testSelectableInSpellChecker() {
+        DictionaryLookup lookup = dictionary("hello", "world", "java");
+        SpellChecker checker = new SpellChecker(lookup, new SymSpellEngine(lookup));
+
+        assertTrue(checker.getSuggestions("Hello").isEmpty());
+        assertEquals(List.of("hello"), checker.getSuggestions("HELO"));
+        // Расстояние 2 недоступно перебору правок на расстоянии 1
+        assertEquals(List.of("java"), checker.getSuggestions("jvaaa"));
+        assertTrue(new SpellChecker(lookup).getSuggestions("jvaaa").isEmpty());
+    }
+
+    @Test
+    void testMatchesFullScan() {
+        // Результат индекса должен совпадать с проверкой расстояния до каждого слова словаря
+        Random random = new Random(7);
+        String alphabet = "abcde";
+        List<String> words = new ArrayList<>();
+        CustomHashMap<String, Boolean> map = new CustomHashMap<>();
+        while (map.size() < 500) {
+            String word = randomWord(random, alphabet, 2 + random.nextInt(10));
+            if (map.get(word) == null) {
+                map.put(word, true);
+                words.add(word);
+            }
+        }
+        SymSpellEngine engine = new SymSpellEngine(DictionaryLookup.of(map), 2, 4);
+
+        for (int i = 0; i < 300; i++) {
+            String query = randomWord(random, alphabet, 1 + random.nextInt(12));
+            List<String> expected = new ArrayList<>();
+            for (int distance = 0; distance <= 2; distance++) {
+                List<String> atDistance = new ArrayList<>();
+                for (String word : words) {
+                    if (EditDistance.damerauLevenshtein(query, word, 2) == distance) {
+                        atDistance.add(word);
+                    }
+                }
+                atDistance.sort(null);
+                expected.addAll(atDistance);
+            }
+            assertEquals(expected, engine.suggest(query), "query " + query);
+        }
+    }
+
+    private static String randomWord(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordIndexTest {
+
+    @Test
+    void testPositionsAndOffsets() {
+        String text = "Hello world, hello\nJAVA hello!";
+        WordIndex index = WordIndex.build(text);
+
+        assertArrayEquals(new int[]{0, 2, 4}, index.positions("hello"));
+        assertArrayEquals(new int[]{0, 13, 24}, index.offsets("HELLO "));
+        assertEquals(3, index.count("Hello"));
+        assertEquals(1, index.count("java"));
+        assertEquals(3, index.size());
+        assertEquals(5, index.getTotalWords());
+    }
+
+    @Test
+    void testMissingWord() {
+        WordIndex index = WordIndex.build("hello world");
+        assertEquals(0, index.positions("nonexistent").length);
+        assertEquals(0, index.count(""));
+        assertEquals(0, index.count(null));
+    }
+
+    @Test
+    void testDigitsAreIgnoredInKeys() {
+        // Как и в findWordPositions, позиция ищется по буквенной форме слова
+        WordIndex index = WordIndex.build("word1 word 42");
+        assertArrayEquals(new int[]{0, 1}, index.positions("word"));
+        assertEquals(2, index.getTotalWords());
+    }
+
+    @Test
+    void testReturnedArraysAreCopies() {
+        WordIndex index = WordIndex.build("hello world hello");
+        int[] positions = index.positions("hello");
+        int[] offsets = index.offsets("hello");
+        assertEquals(0, index.firstOffset("hello"));
+        assertEquals(-1, index.firstOffset("java"));
+
+        // Сдвиг после правки текста не меняет полученные ранее массивы
+        index.shift(0, 1, 5);
+        assertArrayEquals(new int[]{0, 2}, positions);
+        assertArrayEquals(new int[]{0, 12}, offsets);
+        assertArrayEquals(new int[]{1, 3}, index.positions("hello"));
+        assertEquals(5, index.firstOffset("hello"));
+
+        // И изменение массива не меняет индекс
+        positions[0] = 42;
+        assertArrayEquals(new int[]{1, 3}, index.positions("hello"));
+        assertArrayEquals(new int[]{1, 3}, index.copy().positions("hello"));
+    }
+
+    @Test
+    void testCopyIsIndependentOfOriginal() {
+        WordIndex index = WordIndex.build("hello world hello");
+        WordIndex copy = index.copy();
+
+        // Списки общие до первого изменения: сдвиг одного индекса не виден в другом
+        index.shift(1, 1, 4);
+        assertArrayEquals(new int[]{0, 3}, index.positions("hello"));
+        assertArrayEquals(new int[]{0, 2}, copy.positions("hello"));
+        assertArrayEquals(new int[]{0, 12}, copy.offsets("hello"));
+
+        copy.shift(0, 2, 1);
+        assertArrayEquals(new int[]{2, 4}, copy.positions("hello"));
+        assertArrayEquals(new int[]{0, 3}, index.positions("hello"));
+        assertArrayEquals(new int[]{10}, index.offsets("world"));
+        assertEquals(3, copy.getTotalWords());
+
+        // Копия копии тоже независима
+        WordIndex second = copy.copy();
+        second.shift(0, -2, -1);
+        assertArrayEquals(new int[]{2, 4}, copy.positions("hello"));
+        assertArrayEquals(new int[]{0, 2}, second.positions("hello"));
+    }
+
+    @Test
+    void testOffsetsPastIntRangeAreRejected() {
+        WordIndex index = new WordIndex();
+        WordTokenizer tokenizer = new WordTokenizer(index);
+        tokenizer.feed("hello");
+        tokenizer.skip(Integer.MAX_VALUE - 10L);
+        tokenizer.feed("world");
+        tokenizer.skip(10);
+        tokenizer.feed("java");
+
+        // Слово со смещением больше Integer.MAX_VALUE не записывается с неверной позицией
+        IllegalStateException e = assertThrows(IllegalStateException.class, tokenizer::finish);
+        assertTrue(e.getMessage().contains("too long"));
+        assertArrayEquals(new int[]{0}, index.positions("hello"));
+        assertArrayEquals(new int[]{Integer.MAX_VALUE - 5}, index.offsets("world"));
+        assertEquals(0, index.count("java"));
+    }
+}
@@ -0,0 +1,154 @@
+package com.chebotarev.textanalyzer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringTokenizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordTokenizerTest {
+
+    private static List<String> words(String text) {
+        List<String> result = new ArrayList<>();
+        WordTokenizer.tokenize(text, token -> result.add(token.word()));
+        return result;
+    }
+
+    private static List<String> letterRuns(String text) {
+        List<String> result = new ArrayList<>();
+        WordTokenizer tokenizer = new WordTokenizer(new WordTokenizer.Handler() {
+            @Override
+            public void onWord(WordTokenizer token) {
+            }
+
+            @Override
+            public void onLetterRun(WordTokenizer token) {
+                result.add(token.letterRun());
+            }
+        }, true);
+        tokenizer.feed(text);
+        tokenizer.finish();
+        return result;
+    }
+
+    @Test
+    void testNormalization() {
+        assertEquals(List.of("hello", "world", "ёжик", "dont", "abc123"),
+                words("Hello, WORLD! Ёжик don't abc-123"));
+    }
+
+    @Test
+    void testLetterRuns() {
+        assertEquals(List.of("don", "t", "state", "of", "the", "art", "abc"),
+                letterRuns("don't state-of-the-art abc123"));
+    }
+
+    @Test
+    void testIndexAndOffsets() {
+        List<long[]> tokens = new ArrayList<>();
+        WordTokenizer.tokenize("  one ... two\tthree", token ->
+                tokens.add(new long[]{token.index(), token.start(), token.end()}));
+
+        assertEquals(3, tokens.size());
+        assertArrayEquals(new long[]{0, 2, 5}, tokens.get(0));
+        // "..." не содержит букв, но занимает позицию 1
+        assertArrayEquals(new long[]{2, 10, 13}, tokens.get(1));
+        assertArrayEquals(new long[]{3, 14, 19}, tokens.get(2));
+    }
+
+    @Test
+    void testOffsetsPastIntRange() {
+        List<long[]> tokens = new ArrayList<>();
+        WordTokenizer tokenizer = new WordTokenizer(token ->
+                tokens.add(new long[]{token.index(), token.start(), token.end()}));
+        tokenizer.feed("one");
+        tokenizer.skip(Integer.MAX_VALUE);
+        tokenizer.feed("two three");
+        tokenizer.skip(Integer.MAX_VALUE);
+        tokenizer.feed("four");
+        tokenizer.finish();
+
+        long base = 3L + Integer.MAX_VALUE;
+        assertEquals(4, tokens.size());
+        assertArrayEquals(new long[]{0, 0, 3}, tokens.get(0));
+        assertArrayEquals(new long[]{1, base, base + 3}, tokens.get(1));
+        assertArrayEquals(new long[]{2, base + 4, base + 9}, tokens.get(2));
+        assertArrayEquals(new long[]{3, base + 9 + Integer.MAX_VALUE, base + 13 + Integer.MAX_VALUE}, tokens.get(3));
+    }
+
+    @Test
+    void testChunkedFeedMatchesWholeText() {
+        String text = "разбиение слов на границе буферов работает";
+        List<String> expected = words(text);
+
+        List<String> actual = new ArrayList<>();
+        WordTokenizer tokenizer = new WordTokenizer(token -> actual.add(token.word()));
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i += 3) {
+            tokenizer.feed(chars, i, Math.min(3, chars.length - i));
+        }
+        tokenizer.finish();
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testMatchesRegexNormalization() {
+        // Сравниваем с прежней реализацией на случайном тексте
+        String alphabet = "abcXYZабвЁЯё019 \t\n.,!-'’K日🚀";
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        String text = sb.toString();
+
+        List<String> expected = new ArrayList<>();
+        StringTokenizer st = new StringTokenizer(text, " \t\n\r\f\u000B");
+        while (st.hasMoreTokens()) {
+            String word = st.nextToken().toLowerCase().replaceAll("[^a-zа-яё0-9]", "");
+            if (!word.isEmpty()) {
+                expected.add(word);
+            }
+        }
+        assertEquals(expected, words(text));
+
+        List<String> expectedRuns = new ArrayList<>();
+        for (String run : text.toLowerCase().replaceAll("[^a-zа-яё\\s]", " ").trim().split("\\s+")) {
+            if (!run.isEmpty()) {
+                expectedRuns.add(run);
+            }
+        }
+        assertEquals(expectedRuns, letterRuns(text));
+    }
+
+    @Test
+    void testHashesMatchStringHashCode() {
+        List<String> mismatches = new ArrayList<>();
+        WordTokenizer tokenizer = new WordTokenizer(new WordTokenizer.Handler() {
+            @Override
+            public void onWord(WordTokenizer token) {
+                if (token.wordHash() != token.word().hashCode()) {
+                    mismatches.add(token.word());
+                }
+                String letters = new String(token.letterChars(), 0, token.letterLength());
+                if (token.letterHash() != letters.hashCode()) {
+                    mismatches.add(letters);
+                }
+            }
+
+            @Override
+            public void onLetterRun(WordTokenizer token) {
+                if (token.runHash() != token.letterRun().hashCode()) {
+                    mismatches.add(token.letterRun());
+                }
+            }
+        }, true);
+        tokenizer.feed("Hello, WORLD! abc-123 don't Ёжик42 state-of-the-art");
+        tokenizer.finish();
+        assertEquals(List.of(), mismatches);
+    }
+}